@@ -0,0 +1,103 @@
+package com.eduelevate.lms.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    // CourseResponseDto by course ID
+    public static final String COURSES = "courses";
+    // Course IDs of listings and searches, keyed by method name and arguments; the views come from COURSES
+    public static final String COURSE_LISTS = "courseLists";
+    
+    @Value("${app.courseCache.maxSize:10000}")
+    private long courseCacheMaxSize;
+    
+    @Value("${app.courseListCache.maxSize:500}")
+    private long courseListCacheMaxSize;
+    
+    @Value("${app.courseCache.ttlSeconds:300}")
+    private long courseCacheTtlSeconds;
+    
+    @Value("${app.courseCache.reevictDelayMs:2000}")
+    private long courseCacheReevictDelayMs;
+    
+    @Bean
+    public CacheManager cacheManager() {
+        Executor reevictions = CompletableFuture.delayedExecutor(courseCacheReevictDelayMs, TimeUnit.MILLISECONDS);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return new ReevictingCaffeineCache(name, cache, isAllowNullValues(), reevictions);
+            }
+        };
+        cacheManager.registerCustomCache(COURSES, Caffeine.newBuilder()
+                .maximumSize(courseCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(courseCacheTtlSeconds))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(COURSE_LISTS, Caffeine.newBuilder()
+                .maximumSize(courseListCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(courseCacheTtlSeconds))
+                .recordStats()
+                .build());
+        
+        // Puts and evictions are applied after commit, so a rolled-back write never evicts. That alone does
+        // not stop a read that loaded the old row before the commit from putting it back after the eviction;
+        // the second eviction below drops such a put, and the TTL bounds reads slower than its delay
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+    
+    // Repeats every eviction once reads that were already loading have had time to finish.
+    // Still a CaffeineCache, so the cache metrics keep binding to it
+    private static class ReevictingCaffeineCache extends CaffeineCache {
+        
+        private final Executor reevictions;
+        
+        ReevictingCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues, Executor reevictions) {
+            super(name, cache, allowNullValues);
+            this.reevictions = reevictions;
+        }
+        
+        @Override
+        public void evict(Object key) {
+            super.evict(key);
+            reevictions.execute(() -> super.evict(key));
+        }
+        
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean present = super.evictIfPresent(key);
+            reevictions.execute(() -> super.evict(key));
+            return present;
+        }
+        
+        @Override
+        public void clear() {
+            super.clear();
+            reevictions.execute(super::clear);
+        }
+        
+        @Override
+        public boolean invalidate() {
+            boolean notEmpty = super.invalidate();
+            reevictions.execute(super::clear);
+            return notEmpty;
+        }
+    }
+}
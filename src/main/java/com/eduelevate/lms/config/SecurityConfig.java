@@ -3,6 +3,7 @@ package com.eduelevate.lms.config;
 import com.eduelevate.lms.security.AuthTokenFilter;
 import com.eduelevate.lms.security.AuthEntryPoint;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -25,9 +26,13 @@ public class SecurityConfig {
     @Autowired
     private AuthEntryPoint authEntryPoint;
     
+    // BCrypt cost factor; raising it re-hashes each user's password on their next login
+    @Value("${app.bcryptStrength:10}")
+    private int bcryptStrength;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -37,6 +42,8 @@ public class SecurityConfig {
             .exceptionHandling(ex -> ex.authenticationEntryPoint(authEntryPoint))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/auth/**").permitAll() // Allow authentication endpoints
+                .requestMatchers("/actuator/health").permitAll() // Allow health checks
+                .requestMatchers("/actuator/**").hasRole("ADMIN") // Metrics and cache statistics are admin-only
                   // Allow user registration (POST only) - no authentication needed
                 .requestMatchers(HttpMethod.POST, "/api/students").hasRole("ADMIN") // Only Admins can create students
                 .requestMatchers(HttpMethod.POST, "/api/admins").permitAll() // Allow admin registration  
@@ -51,6 +58,7 @@ public class SecurityConfig {
                 // Public course browsing endpoints (no authentication required) - MUST come before protected rules
                 .requestMatchers(HttpMethod.GET, "/api/courses").permitAll() // Public course listing
                 .requestMatchers(HttpMethod.GET, "/api/courses/**").permitAll() // Public course details, search, etc.
+                .requestMatchers(HttpMethod.POST, "/api/courses/stats:batch").permitAll() // Public batch stats (read-only)
                 
                 // Protected course management endpoints - secured by method-level annotations
                 .requestMatchers("/api/courses/**").hasAnyRole("STUDENT", "INSTRUCTOR", "ADMIN")
@@ -3,6 +3,7 @@ package com.eduelevate.lms.controller;
 import com.eduelevate.lms.dto.auth.JwtResponse;
 import com.eduelevate.lms.dto.auth.LoginRequest;
 import com.eduelevate.lms.dto.auth.RegisterRequest;
+import com.eduelevate.lms.exception.ServiceBusyException;
 import com.eduelevate.lms.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +22,9 @@ public class AuthController {
         try {
             JwtResponse jwtResponse = authService.authenticateUser(loginRequest);
             return ResponseEntity.ok(jwtResponse);
+        } catch (ServiceBusyException e) {
+            // Answered with 503 by GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                     .body("Error: " + e.getMessage());
@@ -32,6 +36,9 @@ public class AuthController {
         try {
             JwtResponse jwtResponse = authService.registerUser(registerRequest);
             return ResponseEntity.ok(jwtResponse);
+        } catch (ServiceBusyException e) {
+            // Answered with 503 by GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                     .body("Error: " + e.getMessage());
@@ -1,8 +1,13 @@
 package com.eduelevate.lms.controller;
 
 import com.eduelevate.lms.dto.course.*;
+import com.eduelevate.lms.exception.CourseFullException;
+import com.eduelevate.lms.exception.ResourceNotFoundException;
 import com.eduelevate.lms.security.SecurityUtils;
+import com.eduelevate.lms.service.CourseETagService;
 import com.eduelevate.lms.service.CourseService;
+import com.eduelevate.lms.service.EnrollmentQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,10 +16,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -24,7 +35,17 @@ import java.util.Map;
 @Slf4j
 public class CourseController {
     
-    private final CourseService courseService;    @PostMapping
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_ROSTER_PAGE_SIZE = 500;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int NDJSON_FLUSH_INTERVAL = 100;
+    
+    private final CourseService courseService;
+    private final CourseETagService courseETagService;
+    private final EnrollmentQueue enrollmentQueue;
+    private final ObjectMapper objectMapper;
+    
+    @PostMapping
     @PreAuthorize("hasRole('INSTRUCTOR')")
     public ResponseEntity<CourseResponseDto> createCourse(@Valid @RequestBody CourseCreateDto createDto) {
         log.info("Creating course: {}", createDto.getTitle());
@@ -39,9 +60,15 @@ public class CourseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
       @GetMapping("/{courseId}")
-    public ResponseEntity<CourseResponseDto> getCourse(@PathVariable Integer courseId) {
+    public ResponseEntity<CourseResponseDto> getCourse(@PathVariable Integer courseId, WebRequest request) {
+        // Answer If-None-Match polls from the version columns alone
+        String currentETag = courseETagService.getCurrentETag(CourseETagService.Representation.COURSE, courseId);
+        if (request.checkNotModified(currentETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
+        }
+        
         CourseResponseDto response = courseService.getCourseById(courseId);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(courseETagService.getETag(response)).body(response);
     }
       @GetMapping
     public ResponseEntity<?> getAllCourses(
@@ -49,7 +76,15 @@ public class CourseController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
-            @RequestParam(defaultValue = "true") boolean paginated) {
+            @RequestParam(defaultValue = "true") boolean paginated,
+            @RequestParam(required = false) String after) {
+        
+        // Cursor mode: ?after= (empty for the first page) returns keyset pages without a total count
+        if (after != null) {
+            int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+            String cursor = after.isBlank() ? null : after;
+            return ResponseEntity.ok(courseService.getCoursesAfter(cursor, pageSize));
+        }
         
         if (paginated) {
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
@@ -62,8 +97,30 @@ public class CourseController {
             return ResponseEntity.ok(courses);
         }
     }
+    // Streaming export: ?format=ndjson writes one course per line as rows are read, in constant memory
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> exportCourses() {
+        StreamingResponseBody body = outputStream -> {
+            int[] written = {0};
+            courseService.streamAllCourses(course -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(course));
+                    outputStream.write('\n');
+                    // Flush the first line immediately, then periodically
+                    if (written[0]++ % NDJSON_FLUSH_INTERVAL == 0) {
+                        outputStream.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+    
       @PutMapping("/{courseId}")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('INSTRUCTOR') and @courseServiceImpl.getCourseById(#courseId).instructorId == authentication.principal.userId)")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('INSTRUCTOR') and @courseAccess.isInstructor(#courseId, authentication.principal.userId))")
     public ResponseEntity<CourseResponseDto> updateCourse(
             @PathVariable Integer courseId,
             @Valid @RequestBody CourseUpdateDto updateDto) {
@@ -79,28 +136,35 @@ public class CourseController {
         return ResponseEntity.noContent().build();
     }
       @GetMapping("/search")
-    public ResponseEntity<List<CourseResponseDto>> searchCourses(
+    public ResponseEntity<?> searchCourses(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) Integer instructorId,
             @RequestParam(required = false) Integer minWeeks,
             @RequestParam(required = false) Integer maxWeeks,
-            @RequestParam(defaultValue = "false") boolean availableOnly) {
-        
-        List<CourseResponseDto> courses;
-        
-        if (title != null && !title.trim().isEmpty()) {
-            courses = courseService.searchCoursesByTitle(title.trim());
-        } else if (instructorId != null) {
-            courses = courseService.getCoursesByInstructor(instructorId);
-        } else if (minWeeks != null && maxWeeks != null) {
-            courses = courseService.getCoursesByDuration(minWeeks, maxWeeks);
-        } else if (availableOnly) {
-            courses = courseService.getCoursesWithAvailableSpots();
-        } else {
-            courses = courseService.getAllCourses();
+            @RequestParam(defaultValue = "false") boolean availableOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean paginated) {
+        
+        // q searches titles and descriptions; title is kept as an alias for existing clients
+        String text = q != null ? q : title;
+        CourseSearchCriteria criteria = new CourseSearchCriteria(
+                text != null && !text.isBlank() ? text.trim() : null,
+                instructorId, minWeeks, maxWeeks, availableOnly);
+        
+        // Without sortBy, text searches are ordered by relevance and other searches newest first
+        Sort sort = Sort.unsorted();
+        if (sortBy != null) {
+            sort = sortDir.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         }
+        Pageable pageable = paginated ? PageRequest.of(page, size, sort) : Pageable.unpaged(sort);
         
-        return ResponseEntity.ok(courses);
+        Page<CourseResponseDto> courses = courseService.searchCourses(criteria, pageable);
+        return paginated ? ResponseEntity.ok(courses) : ResponseEntity.ok(courses.getContent());
     }
       @GetMapping("/instructor/{instructorId}")
     public ResponseEntity<List<CourseResponseDto>> getCoursesByInstructor(@PathVariable Integer instructorId) {
@@ -110,9 +174,10 @@ public class CourseController {
       // Enrollment endpoints
     @PostMapping("/{courseId}/enroll")
     @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
-    public ResponseEntity<EnrollmentResponseDto> enrollInCourse(
+    public ResponseEntity<?> enrollInCourse(
             @PathVariable Integer courseId,
-            @RequestParam(required = false) Integer studentId) {
+            @RequestParam(required = false) Integer studentId,
+            @RequestParam(defaultValue = "false") boolean async) {
         
         // If student role, use their own ID
         if (SecurityUtils.hasRole("STUDENT") && studentId == null) {
@@ -125,10 +190,51 @@ public class CourseController {
             return ResponseEntity.badRequest().build();
         }
         
+        if (async) {
+            // Frees this request thread right away; the outcome is polled through the ticket
+            EnrollmentTicketDto ticket = enrollmentQueue.submit(courseId, studentId);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/courses/enrollment-tickets/" + ticket.getTicketId()))
+                    .body(ticket);
+        }
+        
         log.info("Enrolling student {} in course {}", studentId, courseId);
-        EnrollmentResponseDto response = courseService.enrollStudent(courseId, studentId);
+        try {
+            EnrollmentResponseDto response = courseService.enrollStudent(courseId, studentId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (CourseFullException e) {
+            // Queue the student instead of failing, so clients stop retrying a full course
+            WaitlistEntryDto entry = courseService.joinWaitlist(courseId, studentId);
+            if (entry.getPosition() == 0) {
+                return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(entry);
+        }
+    }
+    
+    @PostMapping("/{courseId}/enroll/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkEnrollmentResultDto> bulkEnrollInCourse(
+            @PathVariable Integer courseId,
+            @Valid @RequestBody BulkEnrollmentRequest request) {
+        
+        log.info("Bulk enrolling {} student(s) in course {}", request.getStudentIds().size(), courseId);
+        BulkEnrollmentResultDto response = courseService.bulkEnrollStudents(courseId, request.getStudentIds());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+    
+    @GetMapping("/enrollment-tickets/{ticketId}")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
+    public ResponseEntity<EnrollmentTicketDto> getEnrollmentTicket(@PathVariable String ticketId) {
+        EnrollmentTicketDto ticket = enrollmentQueue.getTicket(ticketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Enrollment ticket not found: " + ticketId));
+        
+        // Students can only see their own tickets
+        if (SecurityUtils.hasRole("STUDENT") && !SecurityUtils.getCurrentUserId().equals(ticket.getStudentId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(ticket);
+    }
       @DeleteMapping("/{courseId}/enroll")
     @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
     public ResponseEntity<Void> unenrollFromCourse(
@@ -150,24 +256,98 @@ public class CourseController {
         courseService.unenrollStudent(courseId, studentId);
         return ResponseEntity.noContent().build();
     }
+    
+    @GetMapping("/{courseId}/waitlist")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
+    public ResponseEntity<WaitlistEntryDto> getWaitlistEntry(
+            @PathVariable Integer courseId,
+            @RequestParam(required = false) Integer studentId) {
+        
+        // If student role, use their own ID
+        if (SecurityUtils.hasRole("STUDENT") && studentId == null) {
+            studentId = SecurityUtils.getCurrentUserId();
+        } else if (SecurityUtils.hasRole("STUDENT") && !SecurityUtils.getCurrentUserId().equals(studentId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        if (studentId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        WaitlistEntryDto entry = courseService.getWaitlistEntry(courseId, studentId);
+        return ResponseEntity.ok(entry);
+    }
+    
+    @DeleteMapping("/{courseId}/waitlist")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
+    public ResponseEntity<Void> leaveWaitlist(
+            @PathVariable Integer courseId,
+            @RequestParam(required = false) Integer studentId) {
+        
+        // If student role, use their own ID
+        if (SecurityUtils.hasRole("STUDENT") && studentId == null) {
+            studentId = SecurityUtils.getCurrentUserId();
+        } else if (SecurityUtils.hasRole("STUDENT") && !SecurityUtils.getCurrentUserId().equals(studentId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        if (studentId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        log.info("Removing student {} from the waitlist of course {}", studentId, courseId);
+        courseService.leaveWaitlist(courseId, studentId);
+        return ResponseEntity.noContent().build();
+    }
       @GetMapping("/{courseId}/enrollments")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('INSTRUCTOR') and @courseServiceImpl.getCourseById(#courseId).instructorId == authentication.principal.userId)")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('INSTRUCTOR') and @courseAccess.isInstructor(#courseId, authentication.principal.userId))")
     public ResponseEntity<List<EnrollmentResponseDto>> getCourseEnrollments(@PathVariable Integer courseId) {
         List<EnrollmentResponseDto> enrollments = courseService.getCourseEnrollments(courseId);
         return ResponseEntity.ok(enrollments);
     }
-      @GetMapping("/{courseId}/stats")
-    public ResponseEntity<Map<String, Object>> getCourseStats(@PathVariable Integer courseId) {
-        Integer enrollmentCount = courseService.getCourseEnrollmentCount(courseId);
-        Integer availableSpots = courseService.getCourseAvailableSpots(courseId);
+    
+    @GetMapping("/{courseId}/roster")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('INSTRUCTOR') and @courseAccess.isInstructor(#courseId, authentication.principal.userId))")
+    public ResponseEntity<Page<EnrollmentResponseDto>> getCourseRoster(
+            @PathVariable Integer courseId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
         
-        Map<String, Object> stats = Map.of(
-            "courseId", courseId,
-            "currentEnrollments", enrollmentCount,
-            "availableSpots", availableSpots,
-            "isFull", availableSpots == 0
-        );
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
+            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_ROSTER_PAGE_SIZE)), sort);
+        Page<EnrollmentResponseDto> roster = courseService.getCourseRoster(courseId, pageable);
+        return ResponseEntity.ok(roster);
+    }
+    
+    @GetMapping("/{courseId}/enrollment-history")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('INSTRUCTOR') and @courseAccess.isInstructor(#courseId, authentication.principal.userId))")
+    public ResponseEntity<Page<EnrollmentHistoryDto>> getCourseEnrollmentHistory(
+            @PathVariable Integer courseId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_ROSTER_PAGE_SIZE)));
+        Page<EnrollmentHistoryDto> history = courseService.getCourseEnrollmentHistory(courseId, pageable);
+        return ResponseEntity.ok(history);
+    }
+      @GetMapping("/{courseId}/stats")
+    public ResponseEntity<CourseStatsDto> getCourseStats(@PathVariable Integer courseId, WebRequest request) {
+        // Stats change only with maxStudents (updatedAt) or the enrollment version
+        String currentETag = courseETagService.getCurrentETag(CourseETagService.Representation.STATS, courseId);
+        if (request.checkNotModified(currentETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
+        }
+        
+        CourseStatsDto stats = courseService.getCourseStats(courseId);
+        return ResponseEntity.ok().eTag(currentETag).body(stats);
+    }
+    
+    @PostMapping("/stats:batch")
+    public ResponseEntity<List<CourseStatsDto>> getCourseStatsBatch(@Valid @RequestBody CourseStatsBatchRequest request) {
+        List<CourseStatsDto> stats = courseService.getCourseStats(request.getCourseIds());
         return ResponseEntity.ok(stats);
     }
       // Student-specific endpoints
@@ -177,6 +357,18 @@ public class CourseController {
         List<CourseResponseDto> courses = courseService.getStudentCourses(studentId);
         return ResponseEntity.ok(courses);
     }
+    
+    @GetMapping("/student/{studentId}/enrollment-history")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and #studentId == authentication.principal.userId)")
+    public ResponseEntity<Page<EnrollmentHistoryDto>> getStudentEnrollmentHistory(
+            @PathVariable Integer studentId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_ROSTER_PAGE_SIZE)));
+        Page<EnrollmentHistoryDto> history = courseService.getStudentEnrollmentHistory(studentId, pageable);
+        return ResponseEntity.ok(history);
+    }
 
     @GetMapping("/{courseId}/students/{studentId}/enrolled")
     @PreAuthorize("hasRole('ADMIN') or hasRole('INSTRUCTOR') or (hasRole('STUDENT') and #studentId == authentication.principal.userId)")
@@ -3,7 +3,7 @@ package com.eduelevate.lms.dto.auth;
 public class LoginRequest {
     private String username;
     private String password;
-    private String userType; // "student", "admin", or "instructor"
+    private String userType; // optional: "student", "admin", or "instructor"
 
     // Default constructor
     public LoginRequest() {}
@@ -0,0 +1,20 @@
+package com.eduelevate.lms.dto.course;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentRequest {
+    
+    @NotEmpty(message = "At least one student ID is required")
+    @Size(max = 1000, message = "At most 1000 students can be enrolled at once")
+    private List<@NotNull Integer> studentIds;
+}
@@ -0,0 +1,19 @@
+package com.eduelevate.lms.dto.course;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentResultDto {
+    
+    private Integer courseId;
+    private List<Integer> enrolledStudentIds;
+    
+    // Students skipped because they already had an enrollment in the course
+    private List<Integer> alreadyEnrolledStudentIds;
+}
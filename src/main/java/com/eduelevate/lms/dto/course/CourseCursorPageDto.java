@@ -0,0 +1,19 @@
+package com.eduelevate.lms.dto.course;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseCursorPageDto {
+    
+    private List<CourseResponseDto> content;
+    
+    // Opaque cursor to pass as ?after= for the next page; null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -1,6 +1,7 @@
 package com.eduelevate.lms.dto.course;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -34,6 +35,13 @@ public class CourseResponseDto {
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
+    
+    // Used to derive the ETag of this response, not serialized
+    @JsonIgnore
+    private Long enrollmentVersion;
+    
+    @JsonIgnore
+    private LocalDateTime instructorUpdatedAt;
       // Computed properties
     public Integer getAvailableSpots() {
         if (maxStudents != null && currentEnrollments != null) {
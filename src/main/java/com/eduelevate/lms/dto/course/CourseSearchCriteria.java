@@ -0,0 +1,19 @@
+package com.eduelevate.lms.dto.course;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Filters of GET /api/courses/search; every non-null filter is applied
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSearchCriteria {
+    
+    // Free text matched against title and description
+    private String text;
+    private Integer instructorId;
+    private Integer minWeeks;
+    private Integer maxWeeks;
+    private boolean availableOnly;
+}
@@ -0,0 +1,20 @@
+package com.eduelevate.lms.dto.course;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseStatsBatchRequest {
+    
+    @NotEmpty(message = "At least one course ID is required")
+    @Size(max = 500, message = "At most 500 course IDs can be requested at once")
+    private List<@NotNull Integer> courseIds;
+}
@@ -0,0 +1,27 @@
+package com.eduelevate.lms.dto.course;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseStatsDto {
+    
+    private Integer courseId;
+    private Integer currentEnrollments;
+    private Integer availableSpots;
+    
+    @JsonProperty("isFull")
+    private boolean full;
+    
+    // Used by the JPQL constructor expression in CourseRepository
+    public CourseStatsDto(Integer courseId, Integer currentEnrollments, Integer maxStudents) {
+        this.courseId = courseId;
+        this.currentEnrollments = currentEnrollments;
+        this.availableSpots = Math.max(0, maxStudents - currentEnrollments);
+        this.full = availableSpots == 0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.eduelevate.lms.dto.course;
+
+import com.eduelevate.lms.entity.Enrollment;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentHistoryDto {
+    
+    private Integer enrollmentId;
+    private Integer studentId;
+    private Integer courseId;
+    // Null if the course has since been deleted
+    private String courseTitle;
+    private Enrollment.EnrollmentStatus status;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime enrollmentDate;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime endedAt;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,34 @@
+package com.eduelevate.lms.dto.course;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentTicketDto {
+    
+    private String ticketId;
+    private Integer courseId;
+    private Integer studentId;
+    private Status status;
+    
+    // Set once the request has been processed, depending on the outcome
+    private EnrollmentResponseDto enrollment;
+    private WaitlistEntryDto waitlistEntry;
+    private String error;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime submittedAt;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime completedAt;
+    
+    public enum Status {
+        QUEUED, ENROLLED, WAITLISTED, FAILED
+    }
+}
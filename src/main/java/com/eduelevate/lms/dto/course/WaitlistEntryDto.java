@@ -0,0 +1,22 @@
+package com.eduelevate.lms.dto.course;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDto {
+    
+    private Integer courseId;
+    private Integer studentId;
+    // 1-based place in the queue; 0 when the student was enrolled right away instead
+    private Long position;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime joinedAt;
+}
@@ -5,13 +5,18 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "course")
+@Table(name = "course", indexes = {
+    @Index(name = "idx_course_created_at_id", columnList = "created_at, course_id"),
+    @Index(name = "idx_course_available_seats", columnList = "available_seats")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,9 +39,22 @@ public class Course {
     @Column(name = "max_students")
     private Integer maxStudents = 50;
     
+    // Denormalized ACTIVE enrollment count, changed only through atomic updates in CourseRepository
+    @Column(name = "active_enrollment_count", nullable = false, updatable = false)
+    private Integer activeEnrollmentCount = 0;
+    
+    // maxStudents - activeEnrollmentCount, kept in the same atomic updates so open courses can be found by index
+    @Column(name = "available_seats", nullable = false, updatable = false)
+    private Integer availableSeats = 50;
+    
+    // Bumped with every change to activeEnrollmentCount; part of the course ETag
+    @Column(name = "enrollment_version", nullable = false, updatable = false)
+    private Long enrollmentVersion = 0L;
+    
     // Many-to-One relationship with Instructor
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "instructor_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Instructor instructor;
     
     // One-to-Many relationship with Lessons
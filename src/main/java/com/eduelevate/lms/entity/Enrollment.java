@@ -5,12 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "enrollment", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"student_id", "course_id"})
+}, indexes = {
+    @Index(name = "idx_enrollment_status_id", columnList = "status, enrollment_id")
 })
 @Data
 @NoArgsConstructor
@@ -30,6 +35,7 @@ public class Enrollment {
     // Many-to-One relationship with Course
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Course course;
     
     @Enumerated(EnumType.STRING)
@@ -40,6 +46,11 @@ public class Enrollment {
     @Column(name = "enrollment_date", nullable = false, updatable = false)
     private LocalDateTime enrollmentDate;
     
+    // Last status change; the archiver ages DROPPED/COMPLETED rows from here (null on rows that predate the column)
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
     public enum EnrollmentStatus {
         ACTIVE, COMPLETED, DROPPED
     }
@@ -0,0 +1,46 @@
+package com.eduelevate.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A DROPPED or COMPLETED enrollment moved out of the enrollment table by EnrollmentArchiver.
+// Keeps plain IDs rather than foreign keys so the record outlives the student or course.
+@Entity
+@Table(name = "enrollment_history", indexes = {
+    @Index(name = "idx_enrollment_history_student", columnList = "student_id, ended_at"),
+    @Index(name = "idx_enrollment_history_course", columnList = "course_id, ended_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentHistory {
+    
+    // Same ID the row had in the enrollment table
+    @Id
+    @Column(name = "enrollment_id")
+    private Integer enrollmentId;
+    
+    @Column(name = "student_id", nullable = false)
+    private Integer studentId;
+    
+    @Column(name = "course_id", nullable = false)
+    private Integer courseId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Enrollment.EnrollmentStatus status;
+    
+    @Column(name = "enrollment_date", nullable = false)
+    private LocalDateTime enrollmentDate;
+    
+    // When the enrollment was dropped or completed (its last update)
+    @Column(name = "ended_at", nullable = false)
+    private LocalDateTime endedAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,45 @@
+package com.eduelevate.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Stored response for a request made with an Idempotency-Key; only used when app.idempotency.persistent=true
+@Entity
+@Table(name = "idempotency_record", indexes = {
+    @Index(name = "idx_idempotency_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    
+    // SHA-256 of the caller, request URI and client key
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+    
+    // SHA-256 of the request body; a reused key with a different body is rejected instead of replayed
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+    
+    @Column(name = "status", nullable = false)
+    private Integer status;
+    
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+    
+    @Column(name = "location", length = 500)
+    private String location;
+    
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
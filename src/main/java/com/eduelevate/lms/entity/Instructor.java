@@ -10,7 +10,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "instructor")
+// Usernames and emails are unique within the role here, and across roles in user_identity
+@Table(name = "instructor", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_instructor_username", columnNames = "username"),
+    @UniqueConstraint(name = "uk_instructor_email", columnNames = "email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,8 +25,8 @@ public class Instructor {
     @Column(name = "instructor_id")
     private Integer instructorId;
     
-    @Column(name = "username", nullable = false, unique = true, length = 50)
-    private String username;    @Column(name = "email", nullable = false, unique = true, length = 100)
+    @Column(name = "username", nullable = false, length = 50)
+    private String username;    @Column(name = "email", nullable = false, length = 100)
     private String email;
     
     @Column(name = "password", nullable = false, length = 255)
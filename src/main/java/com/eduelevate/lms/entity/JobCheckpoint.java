@@ -0,0 +1,30 @@
+package com.eduelevate.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Progress of a chunked background job, so a restarted job resumes where it stopped
+@Entity
+@Table(name = "job_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+    
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+    
+    // Highest row ID the job has finished with in its current pass
+    @Column(name = "last_processed_id", nullable = false)
+    private Long lastProcessedId = 0L;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
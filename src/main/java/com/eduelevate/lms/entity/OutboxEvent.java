@@ -0,0 +1,54 @@
+package com.eduelevate.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// An event written in the same transaction as the change it describes; OutboxRelay delivers and deletes it
+@Entity
+@Table(name = "outbox_event")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_event_id")
+    private Long outboxEventId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private EventType eventType;
+    
+    // ID of the course the event is about, for course and enrollment events alike
+    @Column(name = "aggregate_id", nullable = false)
+    private Integer aggregateId;
+    
+    // JSON object with the event details
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+    
+    // When a failed event is retried next; null for events not yet attempted, which are due right away
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    public enum EventType {
+        COURSE_CREATED, COURSE_UPDATED, COURSE_DELETED,
+        ENROLLMENT_CREATED, ENROLLMENTS_BULK_CREATED, ENROLLMENT_DROPPED
+    }
+}
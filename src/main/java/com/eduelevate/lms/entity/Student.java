@@ -6,7 +6,11 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
-@Table(name = "student")
+// Usernames and emails are unique within the role here, and across roles in user_identity
+@Table(name = "student", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_student_username", columnNames = "username"),
+    @UniqueConstraint(name = "uk_student_email", columnNames = "email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,43 @@
+package com.eduelevate.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row per student, admin and instructor account. The unique keys make usernames and emails unique
+// across all three roles, and let login resolve a username to its account without knowing the role.
+@Entity
+@Table(name = "user_identity", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_user_identity_username", columnNames = "username"),
+    @UniqueConstraint(name = "uk_user_identity_email", columnNames = "email"),
+    @UniqueConstraint(name = "uk_user_identity_account", columnNames = {"role", "user_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserIdentity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "user_identity_id")
+    private Long userIdentityId;
+    
+    @Column(name = "username", nullable = false)
+    private String username;
+    
+    @Column(name = "email", nullable = false)
+    private String email;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 20)
+    private Role role;
+    
+    // student_id, admin_id or instructor_id, depending on role
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+    
+    public enum Role {
+        STUDENT, ADMIN, INSTRUCTOR
+    }
+}
@@ -0,0 +1,45 @@
+package com.eduelevate.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+// A student's place in a full course's FIFO waitlist; entry IDs increase, so they give the queue order
+@Entity
+@Table(name = "waitlist_entry", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"student_id", "course_id"})
+}, indexes = {
+    @Index(name = "idx_waitlist_course_entry", columnList = "course_id, waitlist_entry_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "waitlist_entry_id")
+    private Long waitlistEntryId;
+    
+    // Many-to-One relationship with Student
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Student student;
+    
+    // Many-to-One relationship with Course
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Course course;
+    
+    @CreationTimestamp
+    @Column(name = "joined_at", nullable = false, updatable = false)
+    private LocalDateTime joinedAt;
+}
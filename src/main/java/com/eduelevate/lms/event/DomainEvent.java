@@ -0,0 +1,27 @@
+package com.eduelevate.lms.event;
+
+import com.eduelevate.lms.entity.OutboxEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// In-process form of an outbox event, published by OutboxRelay to @EventListener methods
+@Getter
+@AllArgsConstructor
+@ToString
+public class DomainEvent {
+    
+    private final Long eventId;
+    private final OutboxEvent.EventType type;
+    private final Integer aggregateId;
+    private final Map<String, Object> payload;
+    private final LocalDateTime occurredAt;
+    
+    public Integer getInteger(String key) {
+        Object value = payload.get(key);
+        return value instanceof Number number ? number.intValue() : null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.eduelevate.lms.event;
+
+import com.eduelevate.lms.entity.Course;
+import com.eduelevate.lms.entity.OutboxEvent;
+import com.eduelevate.lms.entity.Student;
+import com.eduelevate.lms.repository.CourseRepository;
+import com.eduelevate.lms.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Emails students when they are enrolled or dropped; runs on the outbox relay thread, never in the request
+@Component
+@ConditionalOnProperty(name = "app.enrollmentEmailEnabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentEmailListener {
+    
+    private final JavaMailSender mailSender;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    
+    @EventListener(condition = "#event.type.name() == 'ENROLLMENT_CREATED' or #event.type.name() == 'ENROLLMENT_DROPPED'")
+    public void onEnrollmentChanged(DomainEvent event) {
+        Optional<Student> student = studentRepository.findById(event.getInteger("studentId"));
+        Optional<Course> course = courseRepository.findById(event.getInteger("courseId"));
+        if (student.isEmpty() || course.isEmpty()) {
+            // Deleted since the event was recorded; nothing to tell anyone
+            return;
+        }
+        
+        boolean enrolled = event.getType() == OutboxEvent.EventType.ENROLLMENT_CREATED;
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(student.get().getEmail());
+        message.setSubject(enrolled ? "Enrolled in " + course.get().getTitle() : "Dropped from " + course.get().getTitle());
+        message.setText("Hi " + student.get().getFirstName() + ",\n\nYou have been "
+                + (enrolled ? "enrolled in " : "dropped from ") + course.get().getTitle() + ".\n\nEduElevate LMS");
+        mailSender.send(message);
+        log.debug("Sent enrollment email for outbox event {}", event.getEventId());
+    }
+}
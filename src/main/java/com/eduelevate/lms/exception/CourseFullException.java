@@ -0,0 +1,8 @@
+package com.eduelevate.lms.exception;
+
+// Still an IllegalArgumentException, so callers without waitlist handling keep answering 400
+public class CourseFullException extends IllegalArgumentException {
+    public CourseFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.eduelevate.lms.exception;
+
+// Thrown when a bounded resource is saturated; answered with 503 so clients back off and retry
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
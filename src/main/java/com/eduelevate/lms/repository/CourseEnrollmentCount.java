@@ -0,0 +1,7 @@
+package com.eduelevate.lms.repository;
+
+// Projection pairing a course ID with a number of active enrollments
+public interface CourseEnrollmentCount {
+    Integer getCourseId();
+    Long getActiveCount();
+}
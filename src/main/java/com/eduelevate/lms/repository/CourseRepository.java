@@ -1,40 +1,157 @@
 package com.eduelevate.lms.repository;
 
+import com.eduelevate.lms.dto.course.CourseResponseDto;
+import com.eduelevate.lms.dto.course.CourseStatsDto;
 import com.eduelevate.lms.entity.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Integer> {
+public interface CourseRepository extends JpaRepository<Course, Integer>, CourseRepositoryCustom {
     
-    // Find courses by instructor ID
-    List<Course> findByInstructorInstructorId(Integer instructorId);
+    // Read model: CourseResponseDto built by one query joined with the instructor, no entities loaded
+    String COURSE_VIEW_SELECT = "SELECT new com.eduelevate.lms.dto.course.CourseResponseDto(" +
+            "c.courseId, c.title, c.description, c.durationWeeks, c.maxStudents, c.activeEnrollmentCount, " +
+            "c.availableSeats, i.instructorId, CONCAT(i.firstName, ' ', i.lastName), " +
+            "i.email, i.department, c.createdAt, c.updatedAt, c.enrollmentVersion, i.updatedAt) " +
+            "FROM Course c JOIN c.instructor i ";
+    
+    @Query(COURSE_VIEW_SELECT + "WHERE c.courseId = :courseId")
+    Optional<CourseResponseDto> findCourseViewById(@Param("courseId") Integer courseId);
+    
+    @Query(COURSE_VIEW_SELECT)
+    List<CourseResponseDto> findAllCourseViews();
+    
+    @Query(value = COURSE_VIEW_SELECT, countQuery = "SELECT COUNT(c) FROM Course c")
+    Page<CourseResponseDto> findAllCourseViews(Pageable pageable);
+    
+    // Whole catalog as a stream for NDJSON export; the driver fetches rows in chunks
+    // (MySQL honours the fetch size with useCursorFetch=true on the JDBC URL)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(COURSE_VIEW_SELECT + "ORDER BY c.courseId")
+    Stream<CourseResponseDto> streamAllCourseViews();
     
-    // Find courses by title containing (case-insensitive search)
-    List<Course> findByTitleContainingIgnoreCase(String title);
+    @Query(COURSE_VIEW_SELECT + "WHERE c.courseId IN :courseIds")
+    List<CourseResponseDto> findCourseViewsByIds(@Param("courseIds") Collection<Integer> courseIds);
     
-    // Find courses with available spots (enrolled students < max_students)
-    @Query("SELECT c FROM Course c WHERE " +
-           "(SELECT COUNT(e) FROM Enrollment e WHERE e.course = c AND e.status = 'ACTIVE') < c.maxStudents")
-    List<Course> findCoursesWithAvailableSpots();
+    // Find courses by instructor ID
+    @Query(COURSE_VIEW_SELECT + "WHERE i.instructorId = :instructorId")
+    List<CourseResponseDto> findCourseViewsByInstructorId(@Param("instructorId") Integer instructorId);
     
     // Find courses by student enrollment
-    @Query("SELECT c FROM Course c JOIN c.enrollments e WHERE e.student.studentId = :studentId AND e.status = 'ACTIVE'")
-    List<Course> findCoursesByStudentId(@Param("studentId") Integer studentId);
+    @Query(COURSE_VIEW_SELECT + "JOIN c.enrollments e WHERE e.student.studentId = :studentId AND e.status = 'ACTIVE'")
+    List<CourseResponseDto> findCourseViewsByStudentId(@Param("studentId") Integer studentId);
+    
+    // Keyset pagination over (createdAt, courseId), newest first, backed by idx_course_created_at_id
+    @Query(COURSE_VIEW_SELECT + "ORDER BY c.createdAt DESC, c.courseId DESC")
+    List<CourseResponseDto> findCourseViewsFirstPage(Pageable pageable);
+    
+    @Query(COURSE_VIEW_SELECT + "WHERE c.createdAt <= :createdAt " +
+           "AND (c.createdAt < :createdAt OR c.courseId < :courseId) " +
+           "ORDER BY c.createdAt DESC, c.courseId DESC")
+    List<CourseResponseDto> findCourseViewsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("courseId") Integer courseId,
+                                                 Pageable pageable);
+    
+    // Enrollment statistics for a set of courses, read from the denormalized counters in one query
+    @Query("SELECT new com.eduelevate.lms.dto.course.CourseStatsDto(c.courseId, c.activeEnrollmentCount, c.maxStudents) " +
+           "FROM Course c WHERE c.courseId IN :courseIds")
+    List<CourseStatsDto> findCourseStatsByIds(@Param("courseIds") Collection<Integer> courseIds);
+    
+    // Version of a course's representation, used for ETags without loading the course
+    @Query("SELECT c.courseId AS courseId, c.updatedAt AS updatedAt, c.enrollmentVersion AS enrollmentVersion, " +
+           "i.updatedAt AS instructorUpdatedAt FROM Course c JOIN c.instructor i WHERE c.courseId = :courseId")
+    Optional<CourseVersion> findVersionById(@Param("courseId") Integer courseId);
+    
+    // Indexed text of every course, loaded into CourseSearchIndex on startup
+    @Query("SELECT c.courseId AS courseId, c.title AS title, c.description AS description FROM Course c")
+    List<CourseSearchDocument> findAllSearchDocuments();
     
     // Check if student is enrolled in course
     @Query("SELECT COUNT(e) > 0 FROM Enrollment e WHERE e.student.studentId = :studentId AND e.course.courseId = :courseId AND e.status = 'ACTIVE'")
     boolean isStudentEnrolledInCourse(@Param("studentId") Integer studentId, @Param("courseId") Integer courseId);
     
-    // Get course with enrollment count
-    @Query("SELECT c, COUNT(e) as enrollmentCount FROM Course c LEFT JOIN c.enrollments e WHERE c.courseId = :courseId AND (e.status = 'ACTIVE' OR e.status IS NULL) GROUP BY c")
-    Optional<Object[]> findCourseWithEnrollmentCount(@Param("courseId") Integer courseId);
+    // Owner of a course, read from the course row's foreign key without joining instructor
+    @Query("SELECT c.courseId FROM Course c WHERE c.instructor.instructorId = :instructorId")
+    List<Integer> findCourseIdsByInstructorId(@Param("instructorId") Integer instructorId);
+    
+    @Query("SELECT c.instructor.instructorId FROM Course c WHERE c.courseId = :courseId")
+    Optional<Integer> findInstructorIdByCourseId(@Param("courseId") Integer courseId);
+    
+    // Seats left without taking a lock; only a hint, the reservation below is authoritative
+    @Query("SELECT c.availableSeats FROM Course c WHERE c.courseId = :courseId")
+    Optional<Integer> findAvailableSeatsById(@Param("courseId") Integer courseId);
+    
+    // Atomically take one seat; matches no row when the course is full, so it can never oversell
+    @Modifying
+    @Query("UPDATE Course c SET c.activeEnrollmentCount = c.activeEnrollmentCount + 1, " +
+           "c.availableSeats = c.availableSeats - 1, c.enrollmentVersion = c.enrollmentVersion + 1 " +
+           "WHERE c.courseId = :courseId AND c.availableSeats > 0")
+    int reserveSeat(@Param("courseId") Integer courseId);
+    
+    // Atomically take several seats at once, or none if fewer are left
+    @Modifying
+    @Query("UPDATE Course c SET c.activeEnrollmentCount = c.activeEnrollmentCount + :seats, " +
+           "c.availableSeats = c.availableSeats - :seats, c.enrollmentVersion = c.enrollmentVersion + 1 " +
+           "WHERE c.courseId = :courseId AND c.availableSeats >= :seats")
+    int reserveSeats(@Param("courseId") Integer courseId, @Param("seats") int seats);
+    
+    // Atomically give one seat back
+    @Modifying
+    @Query("UPDATE Course c SET c.activeEnrollmentCount = c.activeEnrollmentCount - 1, " +
+           "c.availableSeats = c.availableSeats + 1, c.enrollmentVersion = c.enrollmentVersion + 1 " +
+           "WHERE c.courseId = :courseId AND c.activeEnrollmentCount > 0")
+    int releaseSeat(@Param("courseId") Integer courseId);
+    
+    // Give back the seat of every ACTIVE enrollment a student holds, one seat per course, in one statement
+    @Modifying
+    @Query("UPDATE Course c SET c.activeEnrollmentCount = c.activeEnrollmentCount - 1, " +
+           "c.availableSeats = c.availableSeats + 1, c.enrollmentVersion = c.enrollmentVersion + 1 " +
+           "WHERE c.activeEnrollmentCount > 0 AND c.courseId IN (" +
+           "SELECT e.course.courseId FROM Enrollment e WHERE e.student.studentId = :studentId AND e.status = 'ACTIVE')")
+    int releaseSeatsOfStudent(@Param("studentId") Integer studentId);
+    
+    // Change capacity and available seats together; matches no row if the new capacity is below the active count
+    @Modifying
+    @Query("UPDATE Course c SET c.maxStudents = :maxStudents, c.availableSeats = :maxStudents - c.activeEnrollmentCount " +
+           "WHERE c.courseId = :courseId AND c.activeEnrollmentCount <= :maxStudents")
+    int updateMaxStudents(@Param("courseId") Integer courseId, @Param("maxStudents") Integer maxStudents);
+    
+    // Stored active enrollment counters, used by the reconciliation job
+    @Query("SELECT c.courseId AS courseId, CAST(c.activeEnrollmentCount AS Long) AS activeCount FROM Course c")
+    Slice<CourseEnrollmentCount> findActiveEnrollmentCounters(Pageable pageable);
+    
+    // Courses whose available seats disagree with their own capacity and counter
+    @Query("SELECT c.courseId FROM Course c WHERE c.availableSeats <> c.maxStudents - c.activeEnrollmentCount")
+    List<Integer> findCourseIdsWithInconsistentSeats();
     
-    // Find courses by duration range
-    List<Course> findByDurationWeeksBetween(Integer minWeeks, Integer maxWeeks);
+    // Recompute the active enrollment counter from the enrollment table
+    @Transactional
+    @Modifying
+    @Query("UPDATE Course c SET c.activeEnrollmentCount = " +
+           "(SELECT COUNT(e) FROM Enrollment e WHERE e.course.courseId = c.courseId AND e.status = 'ACTIVE'), " +
+           "c.availableSeats = c.maxStudents - " +
+           "(SELECT COUNT(e) FROM Enrollment e WHERE e.course.courseId = c.courseId AND e.status = 'ACTIVE'), " +
+           "c.enrollmentVersion = c.enrollmentVersion + 1 " +
+           "WHERE c.courseId IN :courseIds")
+    int recountActiveEnrollments(@Param("courseIds") Collection<Integer> courseIds);
 }
@@ -0,0 +1,35 @@
+package com.eduelevate.lms.repository;
+
+import com.eduelevate.lms.dto.course.CourseResponseDto;
+import com.eduelevate.lms.dto.course.CourseSearchCriteria;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Dynamic course search queries built with the Criteria API
+public interface CourseRepositoryCustom {
+    
+    // Sortable search properties, mapped to Course attributes
+    Map<String, String> SORTABLE_PROPERTIES = Map.of(
+            "courseId", "courseId",
+            "title", "title",
+            "durationWeeks", "durationWeeks",
+            "maxStudents", "maxStudents",
+            "currentEnrollments", "activeEnrollmentCount",
+            "createdAt", "createdAt",
+            "updatedAt", "updatedAt"
+    );
+    
+    // Applies every criteria filter in SQL; courseIds, when not null, further restricts the result
+    Page<CourseResponseDto> searchCourseViews(CourseSearchCriteria criteria, Collection<Integer> courseIds, Pageable pageable);
+    
+    // IDs of the courses matching the criteria, restricted to courseIds when not null
+    List<Integer> findMatchingCourseIds(CourseSearchCriteria criteria, Collection<Integer> courseIds);
+    
+    // The first limit of courseIds in the order searchCourseViews returns them for this sort
+    List<Integer> findSortedCourseIds(Collection<Integer> courseIds, Sort sort, int limit);
+}
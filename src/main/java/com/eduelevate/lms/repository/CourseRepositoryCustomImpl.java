@@ -0,0 +1,154 @@
+package com.eduelevate.lms.repository;
+
+import com.eduelevate.lms.dto.course.CourseResponseDto;
+import com.eduelevate.lms.dto.course.CourseSearchCriteria;
+import com.eduelevate.lms.entity.Course;
+import com.eduelevate.lms.entity.Instructor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class CourseRepositoryCustomImpl implements CourseRepositoryCustom {
+    
+    private static final char LIKE_ESCAPE = '\\';
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Page<CourseResponseDto> searchCourseViews(CourseSearchCriteria criteria, Collection<Integer> courseIds, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CourseResponseDto> query = cb.createQuery(CourseResponseDto.class);
+        Root<Course> course = query.from(Course.class);
+        Join<Course, Instructor> instructor = course.join("instructor");
+        
+        // Same shape as CourseRepository.COURSE_VIEW_SELECT
+        query.select(cb.construct(CourseResponseDto.class,
+                course.get("courseId"),
+                course.get("title"),
+                course.get("description"),
+                course.get("durationWeeks"),
+                course.get("maxStudents"),
+                course.get("activeEnrollmentCount"),
+                course.get("availableSeats"),
+                instructor.get("instructorId"),
+                cb.concat(cb.concat(instructor.<String>get("firstName"), " "), instructor.<String>get("lastName")),
+                instructor.get("email"),
+                instructor.get("department"),
+                course.get("createdAt"),
+                course.get("updatedAt"),
+                course.get("enrollmentVersion"),
+                instructor.get("updatedAt")));
+        query.where(buildPredicates(cb, course, criteria, courseIds));
+        query.orderBy(buildOrders(cb, course, pageable.getSort()));
+        
+        TypedQuery<CourseResponseDto> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        
+        // The count query only runs when the total cannot be derived from the page itself
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+                () -> countCourses(criteria, courseIds));
+    }
+    
+    @Override
+    public List<Integer> findMatchingCourseIds(CourseSearchCriteria criteria, Collection<Integer> courseIds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<Course> course = query.from(Course.class);
+        query.select(course.get("courseId"));
+        query.where(buildPredicates(cb, course, criteria, courseIds));
+        return entityManager.createQuery(query).getResultList();
+    }
+    
+    @Override
+    public List<Integer> findSortedCourseIds(Collection<Integer> courseIds, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<Course> course = query.from(Course.class);
+        query.select(course.get("courseId"));
+        query.where(course.get("courseId").in(courseIds));
+        query.orderBy(buildOrders(cb, course, sort));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+    
+    private long countCourses(CourseSearchCriteria criteria, Collection<Integer> courseIds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Course> course = query.from(Course.class);
+        query.select(cb.count(course));
+        query.where(buildPredicates(cb, course, criteria, courseIds));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    private Predicate[] buildPredicates(CriteriaBuilder cb, Root<Course> course,
+                                        CourseSearchCriteria criteria, Collection<Integer> courseIds) {
+        List<Predicate> predicates = new ArrayList<>();
+        
+        if (courseIds != null) {
+            predicates.add(course.get("courseId").in(courseIds));
+        }
+        if (criteria.getText() != null && !criteria.getText().isBlank()) {
+            String pattern = "%" + escapeLike(criteria.getText().toLowerCase()) + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(course.get("title")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(course.get("description")), pattern, LIKE_ESCAPE)));
+        }
+        if (criteria.getInstructorId() != null) {
+            // Compares the foreign key column; no join with instructor needed
+            predicates.add(cb.equal(course.get("instructor").get("instructorId"), criteria.getInstructorId()));
+        }
+        if (criteria.getMinWeeks() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(course.get("durationWeeks"), criteria.getMinWeeks()));
+        }
+        if (criteria.getMaxWeeks() != null) {
+            predicates.add(cb.lessThanOrEqualTo(course.get("durationWeeks"), criteria.getMaxWeeks()));
+        }
+        if (criteria.isAvailableOnly()) {
+            // Served by idx_course_available_seats regardless of enrollment history size
+            predicates.add(cb.greaterThan(course.get("availableSeats"), 0));
+        }
+        
+        return predicates.toArray(new Predicate[0]);
+    }
+    
+    // User text is matched literally, so LIKE wildcards in it must not act as wildcards
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+    
+    private List<Order> buildOrders(CriteriaBuilder cb, Root<Course> course, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String attribute = SORTABLE_PROPERTIES.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(course.get(attribute)) : cb.desc(course.get(attribute)));
+        }
+        
+        // Newest first by default; courseId keeps the order stable across pages
+        if (orders.isEmpty()) {
+            orders.add(cb.desc(course.get("createdAt")));
+        }
+        if (sort.getOrderFor("courseId") == null) {
+            orders.add(cb.desc(course.get("courseId")));
+        }
+        return orders;
+    }
+}
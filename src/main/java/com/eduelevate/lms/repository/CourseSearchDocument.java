@@ -0,0 +1,8 @@
+package com.eduelevate.lms.repository;
+
+// Projection of the course fields covered by the in-memory search index
+public interface CourseSearchDocument {
+    Integer getCourseId();
+    String getTitle();
+    String getDescription();
+}
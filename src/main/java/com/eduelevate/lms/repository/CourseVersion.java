@@ -0,0 +1,12 @@
+package com.eduelevate.lms.repository;
+
+import java.time.LocalDateTime;
+
+// Projection of the course columns that change whenever its representation changes
+public interface CourseVersion {
+    Integer getCourseId();
+    LocalDateTime getUpdatedAt();
+    Long getEnrollmentVersion();
+    // Course responses embed instructor fields
+    LocalDateTime getInstructorUpdatedAt();
+}
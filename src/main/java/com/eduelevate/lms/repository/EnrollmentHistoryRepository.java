@@ -0,0 +1,37 @@
+package com.eduelevate.lms.repository;
+
+import com.eduelevate.lms.dto.course.EnrollmentHistoryDto;
+import com.eduelevate.lms.entity.EnrollmentHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface EnrollmentHistoryRepository extends JpaRepository<EnrollmentHistory, Integer> {
+    
+    String HISTORY_VIEW_SELECT = "SELECT new com.eduelevate.lms.dto.course.EnrollmentHistoryDto(" +
+            "h.enrollmentId, h.studentId, h.courseId, c.title, h.status, h.enrollmentDate, h.endedAt, h.archivedAt) " +
+            "FROM EnrollmentHistory h LEFT JOIN Course c ON c.courseId = h.courseId ";
+    
+    // Copies enrollments into the archive in one INSERT ... SELECT; the caller deletes them afterwards
+    @Modifying
+    @Query("INSERT INTO EnrollmentHistory (enrollmentId, studentId, courseId, status, enrollmentDate, endedAt, archivedAt) " +
+           "SELECT e.enrollmentId, e.student.studentId, e.course.courseId, e.status, e.enrollmentDate, " +
+           "COALESCE(e.updatedAt, e.enrollmentDate), LOCAL DATETIME " +
+           "FROM Enrollment e WHERE e.enrollmentId IN :enrollmentIds")
+    int copyFromEnrollments(@Param("enrollmentIds") Collection<Integer> enrollmentIds);
+    
+    @Query(value = HISTORY_VIEW_SELECT + "WHERE h.studentId = :studentId ORDER BY h.endedAt DESC, h.enrollmentId DESC",
+           countQuery = "SELECT COUNT(h) FROM EnrollmentHistory h WHERE h.studentId = :studentId")
+    Page<EnrollmentHistoryDto> findHistoryByStudentId(@Param("studentId") Integer studentId, Pageable pageable);
+    
+    @Query(value = HISTORY_VIEW_SELECT + "WHERE h.courseId = :courseId ORDER BY h.endedAt DESC, h.enrollmentId DESC",
+           countQuery = "SELECT COUNT(h) FROM EnrollmentHistory h WHERE h.courseId = :courseId")
+    Page<EnrollmentHistoryDto> findHistoryByCourseId(@Param("courseId") Integer courseId, Pageable pageable);
+}
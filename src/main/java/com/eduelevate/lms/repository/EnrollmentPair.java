@@ -0,0 +1,7 @@
+package com.eduelevate.lms.repository;
+
+// Course and student of an enrollment, without loading either entity
+public interface EnrollmentPair {
+    Integer getCourseId();
+    Integer getStudentId();
+}
@@ -1,16 +1,33 @@
 package com.eduelevate.lms.repository;
 
+import com.eduelevate.lms.dto.course.EnrollmentResponseDto;
 import com.eduelevate.lms.entity.Enrollment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer>, EnrollmentRepositoryCustom {
+    
+    // Enrollment with its student and course columns, projected straight into the response DTO in one query
+    String ENROLLMENT_VIEW_SELECT = "SELECT new com.eduelevate.lms.dto.course.EnrollmentResponseDto(" +
+            "e.enrollmentId, s.studentId, CONCAT(s.firstName, ' ', s.lastName), s.email, " +
+            "c.courseId, c.title, e.status, e.enrollmentDate) " +
+            "FROM Enrollment e JOIN e.student s JOIN e.course c ";
+    
       // Find enrollment by student and course
     Optional<Enrollment> findByStudentStudentIdAndCourseCourseId(Integer studentId, Integer courseId);
     
@@ -26,10 +43,48 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer>
     // Find active enrollments for a course
     List<Enrollment> findByCourseCourseIdAndStatus(Integer courseId, Enrollment.EnrollmentStatus status);
     
+    // Active roster of a course; sort with JpaSort.unsafe on the e/s aliases
+    @Query(value = ENROLLMENT_VIEW_SELECT + "WHERE c.courseId = :courseId AND e.status = 'ACTIVE'",
+           countQuery = "SELECT COUNT(e) FROM Enrollment e WHERE e.course.courseId = :courseId AND e.status = 'ACTIVE'")
+    Page<EnrollmentResponseDto> findActiveEnrollmentViewsByCourseId(@Param("courseId") Integer courseId, Pageable pageable);
+    
+    @Query(ENROLLMENT_VIEW_SELECT + "WHERE c.courseId = :courseId AND e.status = 'ACTIVE' ORDER BY e.enrollmentId")
+    List<EnrollmentResponseDto> findActiveEnrollmentViewsByCourseId(@Param("courseId") Integer courseId);
+    
     // Count active enrollments for a course
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.courseId = :courseId AND e.status = 'ACTIVE'")
     Long countActiveByCourseId(@Param("courseId") Integer courseId);
     
+    // Count active enrollments for a set of courses in one grouped query
+    @Query("SELECT e.course.courseId AS courseId, COUNT(e) AS activeCount FROM Enrollment e " +
+           "WHERE e.course.courseId IN :courseIds AND e.status = 'ACTIVE' GROUP BY e.course.courseId")
+    List<CourseEnrollmentCount> countActiveByCourseIds(@Param("courseIds") Collection<Integer> courseIds);
+    
+    // Every ACTIVE enrollment as (courseId, studentId), streamed for EnrollmentBitmapIndex
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.course.courseId AS courseId, e.student.studentId AS studentId FROM Enrollment e WHERE e.status = 'ACTIVE'")
+    Stream<EnrollmentPair> streamActiveEnrollmentPairs();
+    
+    // Courses in which a student holds an ACTIVE enrollment
+    @Query("SELECT e.course.courseId FROM Enrollment e WHERE e.student.studentId = :studentId AND e.status = 'ACTIVE'")
+    List<Integer> findActiveCourseIdsByStudentId(@Param("studentId") Integer studentId);
+    
     // Check if enrollment exists
     boolean existsByStudentStudentIdAndCourseCourseId(Integer studentId, Integer courseId);
+    
+    // Students from the given set that already have an enrollment (of any status) in the course
+    @Query("SELECT e.student.studentId FROM Enrollment e WHERE e.course.courseId = :courseId AND e.student.studentId IN :studentIds")
+    List<Integer> findEnrolledStudentIds(@Param("courseId") Integer courseId, @Param("studentIds") Collection<Integer> studentIds);
+    
+    // Next chunk of DROPPED/COMPLETED enrollments past the archiver's checkpoint whose last change is before the cutoff
+    @Query("SELECT e.enrollmentId FROM Enrollment e WHERE e.status IN ('DROPPED', 'COMPLETED') " +
+           "AND e.enrollmentId > :afterId AND COALESCE(e.updatedAt, e.enrollmentDate) < :cutoff ORDER BY e.enrollmentId")
+    List<Integer> findArchivableIds(@Param("afterId") Integer afterId, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM Enrollment e WHERE e.enrollmentId IN :enrollmentIds")
+    int deleteAllByEnrollmentIdIn(@Param("enrollmentIds") Collection<Integer> enrollmentIds);
 }
@@ -0,0 +1,10 @@
+package com.eduelevate.lms.repository;
+
+import java.util.Collection;
+
+// Enrollment writes that bypass the persistence context
+public interface EnrollmentRepositoryCustom {
+    
+    // Inserts one ACTIVE enrollment per student as a single JDBC batch; returns the number of rows inserted
+    int batchInsertActiveEnrollments(Integer courseId, Collection<Integer> studentIds);
+}
@@ -0,0 +1,35 @@
+package com.eduelevate.lms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EnrollmentRepositoryCustomImpl implements EnrollmentRepositoryCustom {
+    
+    private static final String INSERT_ENROLLMENT =
+            "INSERT INTO enrollment (student_id, course_id, status, enrollment_date) VALUES (?, ?, 'ACTIVE', ?)";
+    
+    // Runs on the connection of the surrounding JPA transaction
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public int batchInsertActiveEnrollments(Integer courseId, Collection<Integer> studentIds) {
+        // Enrollment IDs stay AUTO_INCREMENT; with rewriteBatchedStatements the driver sends one multi-row INSERT
+        Timestamp enrollmentDate = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = studentIds.stream()
+                .map(studentId -> new Object[] {studentId, courseId, enrollmentDate})
+                .toList();
+        
+        int inserted = 0;
+        for (int count : jdbcTemplate.batchUpdate(INSERT_ENROLLMENT, rows)) {
+            // A rewritten batch reports SUCCESS_NO_INFO instead of per-row counts
+            inserted += count >= 0 ? count : 1;
+        }
+        return inserted;
+    }
+}
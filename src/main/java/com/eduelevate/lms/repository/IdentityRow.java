@@ -0,0 +1,8 @@
+package com.eduelevate.lms.repository;
+
+// Account fields needed to backfill user_identity
+public interface IdentityRow {
+    Integer getUserId();
+    String getUsername();
+    String getEmail();
+}
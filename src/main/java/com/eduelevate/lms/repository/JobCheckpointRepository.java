@@ -0,0 +1,9 @@
+package com.eduelevate.lms.repository;
+
+import com.eduelevate.lms.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
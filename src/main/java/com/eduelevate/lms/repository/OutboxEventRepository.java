@@ -0,0 +1,33 @@
+package com.eduelevate.lms.repository;
+
+import com.eduelevate.lms.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // Next due, undelivered event IDs in insertion order. Read without locks; each event is claimed on its own below
+    @Query("SELECT e.outboxEventId FROM OutboxEvent e WHERE e.outboxEventId > :afterId AND e.attempts < :maxAttempts " +
+           "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.outboxEventId")
+    List<Long> findRelayCandidateIds(@Param("afterId") Long afterId, @Param("maxAttempts") int maxAttempts,
+                                     @Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Claims one event for delivery; a lock timeout of -2 is SKIP LOCKED, so an event another relay
+    // (e.g. on a different app instance) is delivering comes back empty instead of being sent twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.outboxEventId = :id AND e.attempts < :maxAttempts")
+    Optional<OutboxEvent> claimForRelay(@Param("id") Long id, @Param("maxAttempts") int maxAttempts);
+}
@@ -1,7 +1,10 @@
 package com.eduelevate.lms.repository;
 import com.eduelevate.lms.entity.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,4 +33,8 @@ public interface StudentRepository extends JpaRepository<Student, Integer> {
     Optional<Student> findByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+    
+    // IDs from the given set that belong to existing students
+    @Query("SELECT s.studentId FROM Student s WHERE s.studentId IN :studentIds")
+    List<Integer> findExistingIds(@Param("studentIds") Collection<Integer> studentIds);
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.eduelevate.lms.repository;
+
+import com.eduelevate.lms.entity.UserIdentity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserIdentityRepository extends JpaRepository<UserIdentity, Long> {
+    
+    Optional<UserIdentity> findByUsername(String username);
+    
+    Optional<UserIdentity> findByRoleAndUserId(UserIdentity.Role role, Integer userId);
+    
+    @Modifying
+    @Query("DELETE FROM UserIdentity u WHERE u.role = :role AND u.userId = :userId")
+    int deleteByRoleAndUserId(@Param("role") UserIdentity.Role role, @Param("userId") Integer userId);
+    
+    // Accounts created before user_identity existed (or by direct SQL), for the startup backfill
+    @Query("SELECT s.studentId AS userId, s.username AS username, s.email AS email FROM Student s " +
+           "WHERE NOT EXISTS (SELECT 1 FROM UserIdentity u WHERE u.role = 'STUDENT' AND u.userId = s.studentId)")
+    List<IdentityRow> findStudentsWithoutIdentity();
+    
+    @Query("SELECT a.adminId AS userId, a.username AS username, a.email AS email FROM Admin a " +
+           "WHERE NOT EXISTS (SELECT 1 FROM UserIdentity u WHERE u.role = 'ADMIN' AND u.userId = a.adminId)")
+    List<IdentityRow> findAdminsWithoutIdentity();
+    
+    @Query("SELECT i.instructorId AS userId, i.username AS username, i.email AS email FROM Instructor i " +
+           "WHERE NOT EXISTS (SELECT 1 FROM UserIdentity u WHERE u.role = 'INSTRUCTOR' AND u.userId = i.instructorId)")
+    List<IdentityRow> findInstructorsWithoutIdentity();
+}
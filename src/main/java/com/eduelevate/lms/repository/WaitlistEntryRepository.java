@@ -0,0 +1,26 @@
+package com.eduelevate.lms.repository;
+
+import com.eduelevate.lms.entity.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    
+    // Head of a course's waitlist, locked so concurrent drops promote different students
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<WaitlistEntry> findFirstByCourseCourseIdOrderByWaitlistEntryIdAsc(Integer courseId);
+    
+    Optional<WaitlistEntry> findByStudentStudentIdAndCourseCourseId(Integer studentId, Integer courseId);
+    
+    boolean existsByCourseCourseId(Integer courseId);
+    
+    boolean existsByStudentStudentIdAndCourseCourseId(Integer studentId, Integer courseId);
+    
+    // 1-based position of an entry, counted on the (course_id, waitlist_entry_id) index
+    long countByCourseCourseIdAndWaitlistEntryIdLessThanEqual(Integer courseId, Long waitlistEntryId);
+}
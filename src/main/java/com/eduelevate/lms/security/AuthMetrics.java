@@ -0,0 +1,54 @@
+package com.eduelevate.lms.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Counters for the token authentication path (auth.token.requests, tagged by outcome) and the sampling
+// decision for its debug trace. Counters are registered up front so recording one never allocates.
+@Component
+public class AuthMetrics {
+    
+    public enum Outcome {
+        // Signature checked and claims cached
+        VERIFIED,
+        // Answered from the verified-token cache
+        CACHED,
+        // No bearer token on the request
+        MISSING,
+        MALFORMED,
+        EXPIRED,
+        UNSUPPORTED,
+        BAD_SIGNATURE,
+        INVALID
+    }
+    
+    private final Map<Outcome, Counter> counters = new EnumMap<>(Outcome.class);
+    private final int traceSampleRate;
+    
+    public AuthMetrics(MeterRegistry meterRegistry,
+                       @Value("${app.authTrace.sampleRate:100}") int traceSampleRate) {
+        for (Outcome outcome : Outcome.values()) {
+            counters.put(outcome, Counter.builder("auth.token.requests")
+                    .description("Bearer token checks by outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.traceSampleRate = Math.max(1, traceSampleRate);
+    }
+    
+    public void record(Outcome outcome) {
+        counters.get(outcome).increment();
+    }
+    
+    // True for roughly one in traceSampleRate calls; callers check the log level first so this is skipped when tracing is off
+    public boolean sampleTrace() {
+        return traceSampleRate == 1 || ThreadLocalRandom.current().nextInt(traceSampleRate) == 0;
+    }
+}
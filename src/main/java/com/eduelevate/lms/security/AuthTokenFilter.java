@@ -1,5 +1,6 @@
 package com.eduelevate.lms.security;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,45 +17,53 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Collections;
 
+// Authenticates requests carrying a bearer token. This runs on every request, so outcomes are counted in
+// AuthMetrics and per-request detail is only logged at DEBUG, for a sample of requests.
 @Component
+@Slf4j
 public class AuthTokenFilter extends OncePerRequestFilter {
 
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
     @Autowired
-    private JwtUtils jwtUtils;    @Override
+    private AuthMetrics authMetrics;
+
+    @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            System.out.println("AuthTokenFilter: Processing request to " + request.getRequestURI());
             String jwt = parseJwt(request);
-            System.out.println("AuthTokenFilter: JWT extracted: " + (jwt != null ? jwt.substring(0, Math.min(jwt.length(), 20)) + "..." : "null"));
-            
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                System.out.println("AuthTokenFilter: JWT validation successful");
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-                String role = jwtUtils.getRoleFromJwtToken(jwt);
-                Integer userId = jwtUtils.getUserIdFromJwtToken(jwt);
-                
-                System.out.println("AuthTokenFilter: Username: " + username + ", Role: " + role + ", UserId: " + userId);
-
-                // Create a custom principal that includes both username and userId
-                UserPrincipal userPrincipal = new UserPrincipal(username, userId, role);
+            if (jwt == null) {
+                authMetrics.record(AuthMetrics.Outcome.MISSING);
+            } else {
+                JwtClaims claims = jwtUtils.verify(jwt).orElse(null);
+                if (claims != null) {
+                    // Create a custom principal that includes both username and userId
+                    UserPrincipal userPrincipal = new UserPrincipal(claims.username(), claims.userId(), claims.role());
 
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(
-                        userPrincipal, 
-                        null, 
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                    );
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(
+                            userPrincipal, 
+                            null, 
+                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + claims.role()))
+                        );
+                    authentication.setDetails(detailsSource.buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("AuthTokenFilter: Authentication set successfully for user: " + username);
-            } else {
-                System.out.println("AuthTokenFilter: JWT validation failed or JWT is null");
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+                
+                if (log.isDebugEnabled() && authMetrics.sampleTrace()) {
+                    log.debug("{} {} authenticated as {} (userId={}, role={})", request.getMethod(), request.getRequestURI(),
+                            claims != null ? claims.username() : "<rejected>",
+                            claims != null ? claims.userId() : null,
+                            claims != null ? claims.role() : null);
+                }
             }
         } catch (Exception e) {
-            System.err.println("AuthTokenFilter: Cannot set user authentication: " + e.getMessage());
-            logger.error("Cannot set user authentication: {}", e);
+            log.error("Cannot set user authentication for {}", request.getRequestURI(), e);
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,47 @@
+package com.eduelevate.lms.security;
+
+import com.eduelevate.lms.exception.ResourceNotFoundException;
+import com.eduelevate.lms.repository.CourseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+// Ownership checks for @PreAuthorize expressions, e.g. @courseAccess.isInstructor(#courseId, authentication.principal.userId).
+// A course's instructor never changes, so courseId -> instructorId is cached and only needs evicting when
+// the course or its instructor is deleted; a check is a map lookup after the first one per course.
+@Component("courseAccess")
+public class CourseAccess {
+    
+    private final CourseRepository courseRepository;
+    private final Cache<Integer, Integer> instructorByCourse;
+    
+    public CourseAccess(CourseRepository courseRepository,
+                        @Value("${app.courseAccessCache.maxSize:100000}") long maxSize) {
+        this.courseRepository = courseRepository;
+        this.instructorByCourse = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+    
+    // Unknown courses still answer 404, as they did when the check loaded the whole course
+    public boolean isInstructor(Integer courseId, Integer instructorId) {
+        if (courseId == null || instructorId == null) {
+            return false;
+        }
+        Integer owner = instructorByCourse.get(courseId, id -> courseRepository.findInstructorIdByCourseId(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + id)));
+        return Objects.equals(owner, instructorId);
+    }
+    
+    public void evictCourse(Integer courseId) {
+        instructorByCourse.invalidate(courseId);
+    }
+    
+    // Deleting an instructor deletes their courses with them
+    public void evictInstructor(Integer instructorId) {
+        instructorByCourse.asMap().values().removeIf(instructorId::equals);
+    }
+}
@@ -0,0 +1,11 @@
+package com.eduelevate.lms.security;
+
+import java.time.Instant;
+
+// Claims of a token whose signature and expiry have already been checked by JwtUtils
+public record JwtClaims(String username, String role, Integer userId, Instant expiresAt) {
+    
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -1,77 +1,127 @@
 package com.eduelevate.lms.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
 
 @Component
+@Slf4j
 public class JwtUtils {
 
-    @Value("${app.jwtSecret:mySecretKey}")
-    private String jwtSecret;
+    private final AuthMetrics authMetrics;
+    private final int jwtExpirationMs;
+    // Key and parser are immutable and thread-safe, so they are built once instead of per call
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    // Tokens that already passed verification, keyed by SHA-256 digest and dropped when the token expires
+    private final Cache<String, JwtClaims> verifiedTokens;
 
-    @Value("${app.jwtExpirationMs:86400000}")
-    private int jwtExpirationMs; // 24 hours
+    public JwtUtils(AuthMetrics authMetrics,
+                    @Value("${app.jwtSecret:mySecretKey}") String jwtSecret,
+                    @Value("${app.jwtExpirationMs:86400000}") int jwtExpirationMs, // 24 hours
+                    @Value("${app.jwtCache.maxSize:10000}") long cacheMaxSize) {
+        this.authMetrics = authMetrics;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+                    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    }    public String generateJwtToken(String username, String role, Integer userId) {
+                    @Override
+                    public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public String generateJwtToken(String username, String role, Integer userId) {
         return Jwts.builder()
                 .setSubject(username)
                 .claim("role", role)
                 .claim("userId", userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }    public String getRoleFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
-    }
+    // Verifies the token once and returns its claims; empty if it is malformed, forged or expired
+    public Optional<JwtClaims> verify(String token) {
+        String digest = digest(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            authMetrics.record(AuthMetrics.Outcome.CACHED);
+            return Optional.of(cached);
+        }
 
-    public Integer getUserIdFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("userId", Integer.class);
-    }    public boolean validateJwtToken(String authToken) {
         try {
-            System.out.println("JwtUtils: Validating token: " + authToken.substring(0, Math.min(authToken.length(), 20)) + "...");
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            System.out.println("JwtUtils: Token validation successful");
-            return true;
+            Claims body = parser.parseClaimsJws(token).getBody();
+            if (body.getExpiration() == null) {
+                return reject(AuthMetrics.Outcome.INVALID, "token has no expiration");
+            }
+            JwtClaims claims = new JwtClaims(
+                    body.getSubject(),
+                    body.get("role", String.class),
+                    body.get("userId", Integer.class),
+                    body.getExpiration().toInstant());
+            verifiedTokens.put(digest, claims);
+            authMetrics.record(AuthMetrics.Outcome.VERIFIED);
+            return Optional.of(claims);
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            return reject(AuthMetrics.Outcome.MALFORMED, e.getMessage());
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            return reject(AuthMetrics.Outcome.EXPIRED, e.getMessage());
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
-        } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            return reject(AuthMetrics.Outcome.UNSUPPORTED, e.getMessage());
+        } catch (SignatureException e) {
+            return reject(AuthMetrics.Outcome.BAD_SIGNATURE, e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            return reject(AuthMetrics.Outcome.INVALID, e.getMessage());
+        }
+    }
+
+    // Rejections are counted rather than logged at INFO; the reason is only formatted when DEBUG is on
+    private Optional<JwtClaims> reject(AuthMetrics.Outcome outcome, String reason) {
+        authMetrics.record(outcome);
+        log.debug("JWT rejected ({}): {}", outcome, reason);
+        return Optional.empty();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        System.out.println("JwtUtils: Token validation failed");
-        return false;
     }
 }
@@ -4,9 +4,11 @@ import com.eduelevate.lms.dto.admin.AdminResponseDto;
 import com.eduelevate.lms.dto.admin.CreateAdminDto;
 import com.eduelevate.lms.dto.admin.UpdateAdminDto;
 import com.eduelevate.lms.entity.Admin;
+import com.eduelevate.lms.entity.UserIdentity;
 import com.eduelevate.lms.repository.AdminRepository;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,10 +18,13 @@ public class AdminServiceImpl implements AdminService {
 
     private final AdminRepository adminRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserIdentityService userIdentityService;
 
-    public AdminServiceImpl(AdminRepository adminRepository, PasswordEncoder passwordEncoder) {
+    public AdminServiceImpl(AdminRepository adminRepository, PasswordEncoder passwordEncoder,
+                            UserIdentityService userIdentityService) {
         this.adminRepository = adminRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userIdentityService = userIdentityService;
     }
 
     @Override
@@ -38,6 +43,7 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
+    @Transactional
     public AdminResponseDto createAdmin(CreateAdminDto createDto) {
         // Check for duplicate email
         if (adminRepository.existsByEmail(createDto.getEmail())) {
@@ -55,10 +61,12 @@ public class AdminServiceImpl implements AdminService {
         admin.setLastName(createDto.getLastName());
 
         Admin savedAdmin = adminRepository.save(admin);
+        userIdentityService.claim(UserIdentity.Role.ADMIN, savedAdmin.getAdminId(), savedAdmin.getUsername(), savedAdmin.getEmail());
         return convertToDto(savedAdmin);
     }
 
     @Override
+    @Transactional
     public AdminResponseDto updateAdmin(int id, UpdateAdminDto updateDto) {
         Admin admin = adminRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Admin not found with id: " + id));
@@ -89,15 +97,20 @@ public class AdminServiceImpl implements AdminService {
         }
 
         Admin updatedAdmin = adminRepository.save(admin);
+        if (updateDto.getUsername() != null || updateDto.getEmail() != null) {
+            userIdentityService.update(UserIdentity.Role.ADMIN, id, updateDto.getUsername(), updateDto.getEmail());
+        }
         return convertToDto(updatedAdmin);
     }
 
     @Override
+    @Transactional
     public void deleteAdmin(int id) {
         if (!adminRepository.existsById(id)) {
             throw new RuntimeException("Admin not found with id: " + id);
         }
         adminRepository.deleteById(id);
+        userIdentityService.release(UserIdentity.Role.ADMIN, id);
     }
 
     // Helper method to convert Admin entity to AdminResponseDto
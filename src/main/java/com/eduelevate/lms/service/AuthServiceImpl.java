@@ -6,17 +6,22 @@ import com.eduelevate.lms.dto.auth.RegisterRequest;
 import com.eduelevate.lms.entity.Admin;
 import com.eduelevate.lms.entity.Instructor;
 import com.eduelevate.lms.entity.Student;
+import com.eduelevate.lms.entity.UserIdentity;
 import com.eduelevate.lms.repository.AdminRepository;
 import com.eduelevate.lms.repository.InstructorRepository;
 import com.eduelevate.lms.repository.StudentRepository;
 import com.eduelevate.lms.security.JwtUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
+@Slf4j
 public class AuthServiceImpl implements AuthService {
 
     @Autowired
@@ -29,42 +34,64 @@ public class AuthServiceImpl implements AuthService {
     private InstructorRepository instructorRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Override
     public JwtResponse authenticateUser(LoginRequest loginRequest) {
         String username = loginRequest.getUsername();
         String password = loginRequest.getPassword();
-        String userType = loginRequest.getUserType().toLowerCase();        switch (userType) {
-            case "student":
-                Optional<Student> student = studentRepository.findByUsername(username);
-                if (student.isPresent() && passwordEncoder.matches(password, student.get().getPassword())) {
-                    String token = jwtUtils.generateJwtToken(username, "STUDENT", student.get().getStudentId());
-                    return new JwtResponse(token, username, "STUDENT", student.get().getStudentId());
+        // userType is optional: the identity index knows the account's role
+        UserIdentity.Role expectedRole = loginRequest.getUserType() != null ? parseRole(loginRequest.getUserType()) : null;
+
+        Optional<UserIdentity> identity = userIdentityService.findByUsername(username)
+                .filter(found -> expectedRole == null || found.getRole() == expectedRole);
+        // Accounts the startup backfill could not index (their username or email clashes with another role's)
+        // have no identity row of their own; with a userType they are still found in that role's table
+        if (identity.isEmpty() && expectedRole == null) {
+            throw new RuntimeException("Invalid username or password");
+        }
+        UserIdentity.Role role = identity.map(UserIdentity::getRole).orElse(expectedRole);
+        Integer identityUserId = identity.map(UserIdentity::getUserId).orElse(null);
+
+        switch (role) {
+            case STUDENT:
+                Optional<Student> student = identityUserId != null ? studentRepository.findById(identityUserId) : studentRepository.findByUsername(username);
+                if (student.isPresent() && passwordHasher.matches(password, student.get().getPassword())) {
+                    rehashIfNeeded(student.get().getPassword(), password, student.get()::setPassword, () -> studentRepository.save(student.get()));
+                    Integer userId = student.get().getStudentId();
+                    String token = jwtUtils.generateJwtToken(username, "STUDENT", userId);
+                    return new JwtResponse(token, username, "STUDENT", userId);
                 }
                 break;
 
-            case "admin":
-                Optional<Admin> admin = adminRepository.findByUsername(username);
-                if (admin.isPresent() && passwordEncoder.matches(password, admin.get().getPassword())) {
-                    String token = jwtUtils.generateJwtToken(username, "ADMIN", admin.get().getAdminId());
-                    return new JwtResponse(token, username, "ADMIN", admin.get().getAdminId());
+            case ADMIN:
+                Optional<Admin> admin = identityUserId != null ? adminRepository.findById(identityUserId) : adminRepository.findByUsername(username);
+                if (admin.isPresent() && passwordHasher.matches(password, admin.get().getPassword())) {
+                    rehashIfNeeded(admin.get().getPassword(), password, admin.get()::setPassword, () -> adminRepository.save(admin.get()));
+                    Integer userId = admin.get().getAdminId();
+                    String token = jwtUtils.generateJwtToken(username, "ADMIN", userId);
+                    return new JwtResponse(token, username, "ADMIN", userId);
                 }
                 break;
 
-            case "instructor":
-                Optional<Instructor> instructor = instructorRepository.findByUsername(username);
-                if (instructor.isPresent() && passwordEncoder.matches(password, instructor.get().getPassword())) {
-                    String token = jwtUtils.generateJwtToken(username, "INSTRUCTOR", instructor.get().getInstructorId());
-                    return new JwtResponse(token, username, "INSTRUCTOR", instructor.get().getInstructorId());
+            case INSTRUCTOR:
+                Optional<Instructor> instructor = identityUserId != null ? instructorRepository.findById(identityUserId) : instructorRepository.findByUsername(username);
+                if (instructor.isPresent() && passwordHasher.matches(password, instructor.get().getPassword())) {
+                    rehashIfNeeded(instructor.get().getPassword(), password, instructor.get()::setPassword, () -> instructorRepository.save(instructor.get()));
+                    Integer userId = instructor.get().getInstructorId();
+                    String token = jwtUtils.generateJwtToken(username, "INSTRUCTOR", userId);
+                    return new JwtResponse(token, username, "INSTRUCTOR", userId);
                 }
                 break;
-
-            default:
-                throw new RuntimeException("Invalid user type: " + userType);
         }
 
         throw new RuntimeException("Invalid username or password");
@@ -74,24 +101,25 @@ public class AuthServiceImpl implements AuthService {
     public JwtResponse registerUser(RegisterRequest registerRequest) {
         String username = registerRequest.getUsername();
         String email = registerRequest.getEmail();
-        String userType = registerRequest.getUserType().toLowerCase();
-        String encodedPassword = passwordEncoder.encode(registerRequest.getPassword());
-
-        // Check if username already exists in any user type
-        if (studentRepository.findByUsername(username).isPresent() ||
-            adminRepository.findByUsername(username).isPresent() ||
-            instructorRepository.findByUsername(username).isPresent()) {
-            throw new RuntimeException("Username is already taken!");
-        }
-
-        // Check if email already exists in any user type
-        if (studentRepository.findByEmail(email).isPresent() ||
-            adminRepository.findByEmail(email).isPresent() ||
-            instructorRepository.findByEmail(email).isPresent()) {
-            throw new RuntimeException("Email is already in use!");
+        UserIdentity.Role role = parseRole(registerRequest.getUserType());
+
+        // Hashed outside the transaction so no connection is held while BCrypt runs
+        String encodedPassword = passwordHasher.encode(registerRequest.getPassword());
+
+        // Username and email uniqueness across all roles is enforced by user_identity's unique keys:
+        // a taken name fails the identity insert and rolls back the account created with it. A name taken
+        // within the same role already fails the account insert on the role table's own keys
+        try {
+            return transactionTemplate.execute(status -> register(role, username, email, encodedPassword, registerRequest));
+        } catch (DataIntegrityViolationException e) {
+            throw userIdentityService.toDuplicate(e);
         }
+    }
 
-        switch (userType) {            case "student":
+    private JwtResponse register(UserIdentity.Role role, String username, String email, String encodedPassword,
+                                 RegisterRequest registerRequest) {
+        switch (role) {
+            case STUDENT:
                 Student student = new Student();
                 student.setUsername(username);
                 student.setPassword(encodedPassword);
@@ -99,9 +127,12 @@ public class AuthServiceImpl implements AuthService {
                 student.setFirstName(registerRequest.getFirstName());
                 student.setLastName(registerRequest.getLastName());
                 student = studentRepository.save(student);
-                
+                userIdentityService.claim(role, student.getStudentId(), username, email);
+
                 String studentToken = jwtUtils.generateJwtToken(username, "STUDENT", student.getStudentId());
-                return new JwtResponse(studentToken, username, "STUDENT", student.getStudentId());            case "admin":
+                return new JwtResponse(studentToken, username, "STUDENT", student.getStudentId());
+
+            case ADMIN:
                 Admin admin = new Admin();
                 admin.setUsername(username);
                 admin.setPassword(encodedPassword);
@@ -109,9 +140,12 @@ public class AuthServiceImpl implements AuthService {
                 admin.setFirstName(registerRequest.getFirstName());
                 admin.setLastName(registerRequest.getLastName());
                 admin = adminRepository.save(admin);
-                
+                userIdentityService.claim(role, admin.getAdminId(), username, email);
+
                 String adminToken = jwtUtils.generateJwtToken(username, "ADMIN", admin.getAdminId());
-                return new JwtResponse(adminToken, username, "ADMIN", admin.getAdminId());            case "instructor":
+                return new JwtResponse(adminToken, username, "ADMIN", admin.getAdminId());
+
+            default:
                 Instructor instructor = new Instructor();
                 instructor.setUsername(username);
                 instructor.setPassword(encodedPassword);
@@ -119,12 +153,38 @@ public class AuthServiceImpl implements AuthService {
                 instructor.setFirstName(registerRequest.getFirstName());
                 instructor.setLastName(registerRequest.getLastName());
                 instructor = instructorRepository.save(instructor);
-                
+                userIdentityService.claim(role, instructor.getInstructorId(), username, email);
+
                 String instructorToken = jwtUtils.generateJwtToken(username, "INSTRUCTOR", instructor.getInstructorId());
                 return new JwtResponse(instructorToken, username, "INSTRUCTOR", instructor.getInstructorId());
+        }
+    }
 
-            default:
-                throw new RuntimeException("Invalid user type: " + userType + ". Must be 'student', 'admin', or 'instructor'");
+    private UserIdentity.Role parseRole(String userType) {
+        if (userType != null) {
+            switch (userType.toLowerCase()) {
+                case "student":
+                    return UserIdentity.Role.STUDENT;
+                case "admin":
+                    return UserIdentity.Role.ADMIN;
+                case "instructor":
+                    return UserIdentity.Role.INSTRUCTOR;
+            }
+        }
+        throw new RuntimeException("Invalid user type: " + userType + ". Must be 'student', 'admin', or 'instructor'");
+    }
+
+    // Re-hashes a password made with an older, cheaper BCrypt cost while the raw password is at hand.
+    // Best effort: a busy hashing pool or a failed save leaves the old hash, which still verifies.
+    private void rehashIfNeeded(String encodedPassword, String rawPassword, Consumer<String> setPassword, Runnable save) {
+        if (!passwordHasher.needsRehash(encodedPassword)) {
+            return;
+        }
+        try {
+            setPassword.accept(passwordHasher.encode(rawPassword));
+            save.run();
+        } catch (RuntimeException e) {
+            log.warn("Could not upgrade password hash: {}", e.getMessage());
         }
     }
 }
@@ -0,0 +1,46 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.dto.course.CourseResponseDto;
+import com.eduelevate.lms.exception.ResourceNotFoundException;
+import com.eduelevate.lms.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+// Strong ETags for course resources, derived from Course.updatedAt, the enrollment version and the
+// instructor's updatedAt. The current ETag is read with a single primary-key projection, without building
+// the course response. Each representation of a course gets its own ETag.
+@Service
+@RequiredArgsConstructor
+public class CourseETagService {
+    
+    public enum Representation {
+        COURSE, STATS
+    }
+    
+    private final CourseRepository courseRepository;
+    
+    @Transactional(readOnly = true)
+    public String getCurrentETag(Representation representation, Integer courseId) {
+        return courseRepository.findVersionById(courseId)
+                .map(version -> eTag(representation, version.getCourseId(), version.getUpdatedAt(),
+                        version.getEnrollmentVersion(), version.getInstructorUpdatedAt()))
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + courseId));
+    }
+    
+    // ETag of an already built response, so a cached response is never labelled with a newer version
+    public String getETag(CourseResponseDto course) {
+        return eTag(Representation.COURSE, course.getCourseId(), course.getUpdatedAt(),
+                course.getEnrollmentVersion(), course.getInstructorUpdatedAt());
+    }
+    
+    private String eTag(Representation representation, Integer courseId, LocalDateTime updatedAt,
+                        Long enrollmentVersion, LocalDateTime instructorUpdatedAt) {
+        String version = representation + "|" + courseId + "|" + updatedAt + "|" + enrollmentVersion + "|" + instructorUpdatedAt;
+        return "\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
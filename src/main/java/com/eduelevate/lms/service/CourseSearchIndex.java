@@ -0,0 +1,167 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.repository.CourseRepository;
+import com.eduelevate.lms.repository.CourseSearchDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// In-memory inverted index over course titles and descriptions.
+// Built on startup and kept current by CourseServiceImpl after each committed course change.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSearchIndex {
+    
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // Prefix matches score lower than whole-word matches
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+    
+    private final CourseRepository courseRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (courseId -> weighted term frequency), sorted so prefixes are a range scan
+    private NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    // courseId -> indexed terms, used to remove a course's postings
+    private Map<Integer, Set<String>> termsByCourse = new HashMap<>();
+    private volatile boolean ready = false;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // Held across the load so course changes committed meanwhile are applied after it, not lost
+        lock.writeLock().lock();
+        try {
+            List<CourseSearchDocument> documents = courseRepository.findAllSearchDocuments();
+            
+            NavigableMap<String, Map<Integer, Integer>> newPostings = new TreeMap<>();
+            Map<Integer, Set<String>> newTermsByCourse = new HashMap<>();
+            for (CourseSearchDocument document : documents) {
+                addDocument(newPostings, newTermsByCourse,
+                        document.getCourseId(), document.getTitle(), document.getDescription());
+            }
+            
+            postings = newPostings;
+            termsByCourse = newTermsByCourse;
+            ready = true;
+            log.info("Course search index built: {} courses, {} terms", documents.size(), newPostings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public void index(Integer courseId, String title, String description) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(courseId);
+            addDocument(postings, termsByCourse, courseId, title, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Integer courseId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Returns IDs of all courses matching every query token (whole word or prefix), best match first.
+    // Not truncated: callers filter the matches further, and a cut-off here would silently drop results.
+    public List<Integer> search(String query) {
+        List<String> queryTokens = tokenize(query).stream().distinct().collect(Collectors.toList());
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        Map<Integer, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String token : queryTokens) {
+                Map<Integer, Double> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((courseId, score) -> score + tokenScores.get(courseId));
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+    
+    private Map<Integer, Double> scoreToken(String token) {
+        Map<Integer, Double> tokenScores = new HashMap<>();
+        // All terms starting with the token; the exact term is the first entry of the range
+        for (Map.Entry<String, Map<Integer, Integer>> entry
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            double factor = entry.getKey().equals(token) ? 1.0 : PREFIX_MATCH_FACTOR;
+            entry.getValue().forEach((courseId, frequency) ->
+                    tokenScores.merge(courseId, frequency * factor, Math::max));
+        }
+        return tokenScores;
+    }
+    
+    private void addDocument(NavigableMap<String, Map<Integer, Integer>> targetPostings,
+                             Map<Integer, Set<String>> targetTermsByCourse,
+                             Integer courseId, String title, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(title).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        
+        frequencies.forEach((term, frequency) ->
+                targetPostings.computeIfAbsent(term, t -> new HashMap<>()).put(courseId, frequency));
+        targetTermsByCourse.put(courseId, frequencies.keySet());
+    }
+    
+    private void removeDocument(Integer courseId) {
+        Set<String> terms = termsByCourse.remove(courseId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Integer, Integer> courses = postings.get(term);
+            if (courses != null) {
+                courses.remove(courseId);
+                if (courses.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+    
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
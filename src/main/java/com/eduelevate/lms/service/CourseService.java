@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CourseService {
     
@@ -13,23 +14,36 @@ public interface CourseService {
     CourseResponseDto getCourseById(Integer courseId);
     List<CourseResponseDto> getAllCourses();
     Page<CourseResponseDto> getAllCourses(Pageable pageable);
+    CourseCursorPageDto getCoursesAfter(String cursor, int size);
+    void streamAllCourses(Consumer<CourseResponseDto> consumer);
     CourseResponseDto updateCourse(Integer courseId, CourseUpdateDto updateDto);
     void deleteCourse(Integer courseId);
     
     // Course search and filtering
     List<CourseResponseDto> getCoursesByInstructor(Integer instructorId);
-    List<CourseResponseDto> searchCoursesByTitle(String title);
-    List<CourseResponseDto> getCoursesWithAvailableSpots();
-    List<CourseResponseDto> getCoursesByDuration(Integer minWeeks, Integer maxWeeks);
+    Page<CourseResponseDto> searchCourses(CourseSearchCriteria criteria, Pageable pageable);
     
     // Enrollment operations
     EnrollmentResponseDto enrollStudent(Integer courseId, Integer studentId);
+    BulkEnrollmentResultDto bulkEnrollStudents(Integer courseId, List<Integer> studentIds);
     void unenrollStudent(Integer courseId, Integer studentId);
+    // Called before a student is deleted, whose enrollments go with them
+    void releaseSeatsOfStudent(Integer studentId);
+    
+    // Waitlist operations
+    WaitlistEntryDto joinWaitlist(Integer courseId, Integer studentId);
+    void leaveWaitlist(Integer courseId, Integer studentId);
+    WaitlistEntryDto getWaitlistEntry(Integer courseId, Integer studentId);
     List<EnrollmentResponseDto> getCourseEnrollments(Integer courseId);
+    Page<EnrollmentResponseDto> getCourseRoster(Integer courseId, Pageable pageable);
     List<CourseResponseDto> getStudentCourses(Integer studentId);
     boolean isStudentEnrolled(Integer courseId, Integer studentId);
     
+    // Archived (DROPPED/COMPLETED) enrollments, see EnrollmentArchiver
+    Page<EnrollmentHistoryDto> getCourseEnrollmentHistory(Integer courseId, Pageable pageable);
+    Page<EnrollmentHistoryDto> getStudentEnrollmentHistory(Integer studentId, Pageable pageable);
+    
     // Course statistics
-    Integer getCourseEnrollmentCount(Integer courseId);
-    Integer getCourseAvailableSpots(Integer courseId);
+    CourseStatsDto getCourseStats(Integer courseId);
+    List<CourseStatsDto> getCourseStats(List<Integer> courseIds);
 }
@@ -1,19 +1,50 @@
 package com.eduelevate.lms.service;
 
+import com.eduelevate.lms.config.CacheConfig;
 import com.eduelevate.lms.dto.course.*;
 import com.eduelevate.lms.entity.*;
+import com.eduelevate.lms.exception.CourseFullException;
 import com.eduelevate.lms.exception.DuplicateResourceException;
 import com.eduelevate.lms.exception.ResourceNotFoundException;
 import com.eduelevate.lms.repository.*;
+import com.eduelevate.lms.security.CourseAccess;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,12 +52,32 @@ import java.util.stream.Collectors;
 @Transactional
 public class CourseServiceImpl implements CourseService {
     
+    // Course IDs go to SQL this many at a time (text-match filtering and sorting, view loads), keeping IN lists bounded
+    private static final int SEARCH_FILTER_CHUNK_SIZE = 1000;
+    
+    // Roster sort keys, mapped to aliases of EnrollmentRepository.ENROLLMENT_VIEW_SELECT
+    private static final Map<String, List<String>> ROSTER_SORT_PATHS = Map.of(
+            "name", List.of("s.lastName", "s.firstName"),
+            "enrollmentDate", List.of("e.enrollmentDate")
+    );
+    
+    // Listings ordered or filtered by seat counts change with every enrollment, so they are never cached
+    private static final Set<String> SEAT_SORT_PROPERTIES = Set.of("currentEnrollments", "activeEnrollmentCount", "availableSeats");
+    
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentHistoryRepository enrollmentHistoryRepository;
     private final InstructorRepository instructorRepository;
     private final StudentRepository studentRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final CourseSearchIndex courseSearchIndex;
+    private final EnrollmentBitmapIndex enrollmentBitmapIndex;
+    private final OutboxService outboxService;
+    private final CourseAccess courseAccess;
+    private final CacheManager cacheManager;
     
     @Override
+    @CacheEvict(cacheNames = CacheConfig.COURSE_LISTS, allEntries = true)
     public CourseResponseDto createCourse(CourseCreateDto createDto) {
         log.info("Creating new course: {}", createDto.getTitle());
         
@@ -39,53 +90,106 @@ public class CourseServiceImpl implements CourseService {
         course.setDescription(createDto.getDescription());
         course.setDurationWeeks(createDto.getDurationWeeks());
         course.setMaxStudents(createDto.getMaxStudents());
+        course.setAvailableSeats(createDto.getMaxStudents());
         course.setInstructor(instructor);
         
         Course savedCourse = courseRepository.save(course);
+        outboxService.record(OutboxEvent.EventType.COURSE_CREATED, savedCourse.getCourseId(),
+                Map.of("courseId", savedCourse.getCourseId(), "instructorId", instructor.getInstructorId()));
+        TransactionCallbacks.afterCommit(() -> courseSearchIndex.index(savedCourse.getCourseId(), savedCourse.getTitle(), savedCourse.getDescription()));
         log.info("Course created successfully with ID: {}", savedCourse.getCourseId());
         
-        return mapToCourseResponseDto(savedCourse, 0);
+        return mapToCourseResponseDto(savedCourse);
     }
     
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.COURSES, key = "#courseId")
     public CourseResponseDto getCourseById(Integer courseId) {
-        Course course = courseRepository.findById(courseId)
+        return courseRepository.findCourseViewById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + courseId));
-        
-        Long enrollmentCount = enrollmentRepository.countActiveByCourseId(courseId);
-        return mapToCourseResponseDto(course, enrollmentCount.intValue());
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<CourseResponseDto> getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
-        return courses.stream()
-                .map(course -> {
-                    Long enrollmentCount = enrollmentRepository.countActiveByCourseId(course.getCourseId());
-                    return mapToCourseResponseDto(course, enrollmentCount.intValue());
-                })
-                .collect(Collectors.toList());
+        return cachedCourses(new SimpleKey("getAllCourses"), courseRepository::findAllCourseViews);
     }
     
     @Override
     @Transactional(readOnly = true)
     public Page<CourseResponseDto> getAllCourses(Pageable pageable) {
-        Page<Course> coursePage = courseRepository.findAll(pageable);
-        return coursePage.map(course -> {
-            Long enrollmentCount = enrollmentRepository.countActiveByCourseId(course.getCourseId());
-            return mapToCourseResponseDto(course, enrollmentCount.intValue());
-        });
+        if (sortsBySeats(pageable)) {
+            return courseRepository.findAllCourseViews(pageable);
+        }
+        return cachedPage(new SimpleKey("getAllCourses", pageable), pageable, () -> courseRepository.findAllCourseViews(pageable));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CourseCursorPageDto getCoursesAfter(String cursor, int size) {
+        Cache listings = cacheManager.getCache(CacheConfig.COURSE_LISTS);
+        SimpleKey key = new SimpleKey("getCoursesAfter", cursor, size);
+        CursorPageIds cached = listings.get(key, CursorPageIds.class);
+        if (cached != null) {
+            return new CourseCursorPageDto(courseViews(cached.courseIds()), cached.nextCursor(), cached.hasNext());
+        }
+        
+        CourseCursorPageDto page = findCoursesAfter(cursor, size);
+        cacheViews(page.getContent());
+        listings.put(key, new CursorPageIds(courseIds(page.getContent()), page.getNextCursor(), page.isHasNext()));
+        return page;
+    }
+    
+    private CourseCursorPageDto findCoursesAfter(String cursor, int size) {
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<CourseResponseDto> courses;
+        if (cursor == null) {
+            courses = courseRepository.findCourseViewsFirstPage(limit);
+        } else {
+            String[] position = decodeCursor(cursor);
+            courses = courseRepository.findCourseViewsAfter(
+                    LocalDateTime.parse(position[0]), Integer.valueOf(position[1]), limit);
+        }
+        
+        boolean hasNext = courses.size() > size;
+        List<CourseResponseDto> page = hasNext ? courses.subList(0, size) : courses;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new CourseCursorPageDto(page, nextCursor, hasNext);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllCourses(Consumer<CourseResponseDto> consumer) {
+        // The transaction stays open while the caller consumes the rows
+        try (Stream<CourseResponseDto> courses = courseRepository.streamAllCourseViews()) {
+            courses.forEach(consumer);
+        }
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#courseId"),
+        @CacheEvict(cacheNames = CacheConfig.COURSE_LISTS, allEntries = true)
+    })
     public CourseResponseDto updateCourse(Integer courseId, CourseUpdateDto updateDto) {
         log.info("Updating course with ID: {}", courseId);
         
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + courseId));
         
+        if (updateDto.getMaxStudents() != null) {
+            // Applied before the entity changes are flushed so capacity and available seats move together;
+            // the update refuses to go below the current enrollment count
+            if (courseRepository.updateMaxStudents(courseId, updateDto.getMaxStudents()) == 0) {
+                throw new IllegalArgumentException("Cannot reduce max students below current enrollment count: " + course.getActiveEnrollmentCount());
+            }
+            course.setMaxStudents(updateDto.getMaxStudents());
+            // Seats added to a full course go to the waitlist first
+            promoteFromWaitlist(courseId);
+        }
+        
         // Update only non-null fields
         if (updateDto.getTitle() != null) {
             course.setTitle(updateDto.getTitle());
@@ -96,23 +200,21 @@ public class CourseServiceImpl implements CourseService {
         if (updateDto.getDurationWeeks() != null) {
             course.setDurationWeeks(updateDto.getDurationWeeks());
         }
-        if (updateDto.getMaxStudents() != null) {
-            // Ensure max students is not less than current enrollments
-            Long currentEnrollments = enrollmentRepository.countActiveByCourseId(courseId);
-            if (updateDto.getMaxStudents() < currentEnrollments) {
-                throw new IllegalArgumentException("Cannot reduce max students below current enrollment count: " + currentEnrollments);
-            }
-            course.setMaxStudents(updateDto.getMaxStudents());
-        }
-        
         Course updatedCourse = courseRepository.save(course);
-        Long enrollmentCount = enrollmentRepository.countActiveByCourseId(courseId);
+        outboxService.record(OutboxEvent.EventType.COURSE_UPDATED, courseId, Map.of("courseId", courseId));
+        if (updateDto.getTitle() != null || updateDto.getDescription() != null) {
+            TransactionCallbacks.afterCommit(() -> courseSearchIndex.index(courseId, updatedCourse.getTitle(), updatedCourse.getDescription()));
+        }
         
         log.info("Course updated successfully: {}", courseId);
-        return mapToCourseResponseDto(updatedCourse, enrollmentCount.intValue());
+        return mapToCourseResponseDto(updatedCourse);
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#courseId"),
+        @CacheEvict(cacheNames = CacheConfig.COURSE_LISTS, allEntries = true)
+    })
     public void deleteCourse(Integer courseId) {
         log.info("Deleting course with ID: {}", courseId);
         
@@ -120,64 +222,122 @@ public class CourseServiceImpl implements CourseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + courseId));
         
         courseRepository.delete(course);
+        outboxService.record(OutboxEvent.EventType.COURSE_DELETED, courseId, Map.of("courseId", courseId));
+        TransactionCallbacks.afterCommit(() -> {
+            courseSearchIndex.remove(courseId);
+            enrollmentBitmapIndex.removeCourse(courseId);
+            courseAccess.evictCourse(courseId);
+        });
         log.info("Course deleted successfully: {}", courseId);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<CourseResponseDto> getCoursesByInstructor(Integer instructorId) {
-        List<Course> courses = courseRepository.findByInstructorInstructorId(instructorId);
-        return courses.stream()
-                .map(course -> {
-                    Long enrollmentCount = enrollmentRepository.countActiveByCourseId(course.getCourseId());
-                    return mapToCourseResponseDto(course, enrollmentCount.intValue());
-                })
-                .collect(Collectors.toList());
+        return cachedCourses(new SimpleKey("getCoursesByInstructor", instructorId),
+                () -> courseRepository.findCourseViewsByInstructorId(instructorId));
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<CourseResponseDto> searchCoursesByTitle(String title) {
-        List<Course> courses = courseRepository.findByTitleContainingIgnoreCase(title);
-        return courses.stream()
-                .map(course -> {
-                    Long enrollmentCount = enrollmentRepository.countActiveByCourseId(course.getCourseId());
-                    return mapToCourseResponseDto(course, enrollmentCount.intValue());
-                })
-                .collect(Collectors.toList());
+    public Page<CourseResponseDto> searchCourses(CourseSearchCriteria criteria, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!CourseRepositoryCustom.SORTABLE_PROPERTIES.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort courses by: " + order.getProperty());
+            }
+        }
+        
+        if (criteria.isAvailableOnly() || sortsBySeats(pageable)) {
+            return findCourses(criteria, pageable);
+        }
+        return cachedPage(new SimpleKey("searchCourses", criteria, pageable), pageable, () -> findCourses(criteria, pageable));
     }
     
-    @Override
-    @Transactional(readOnly = true)
-    public List<CourseResponseDto> getCoursesWithAvailableSpots() {
-        List<Course> courses = courseRepository.findCoursesWithAvailableSpots();
-        return courses.stream()
-                .map(course -> {
-                    Long enrollmentCount = enrollmentRepository.countActiveByCourseId(course.getCourseId());
-                    return mapToCourseResponseDto(course, enrollmentCount.intValue());
-                })
+    private Page<CourseResponseDto> findCourses(CourseSearchCriteria criteria, Pageable pageable) {
+        String text = criteria.getText();
+        // Until the index has been built on startup, text is matched with LIKE in SQL
+        if (text == null || text.isBlank() || !courseSearchIndex.isReady()) {
+            return courseRepository.searchCourseViews(criteria, null, pageable);
+        }
+        
+        List<Integer> rankedIds = courseSearchIndex.search(text);
+        if (rankedIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        CourseSearchCriteria filters = new CourseSearchCriteria(null, criteria.getInstructorId(),
+                criteria.getMinWeeks(), criteria.getMaxWeeks(), criteria.isAvailableOnly());
+        // Every text match is filtered before paging, so pages and totals never miss low-ranked courses
+        List<Integer> orderedIds = filterRankedIds(filters, rankedIds);
+        if (orderedIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        
+        // Without an explicit sort the relevance order is kept
+        List<Integer> sortedIds = pageable.getSort().isSorted() ? sortIds(orderedIds, pageable) : orderedIds;
+        List<Integer> pageIds = pageable.isPaged()
+                ? sortedIds.stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).collect(Collectors.toList())
+                : sortedIds;
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, orderedIds.size());
+        }
+        
+        Map<Integer, CourseResponseDto> coursesById = courseRepository.findCourseViewsByIds(pageIds).stream()
+                .collect(Collectors.toMap(CourseResponseDto::getCourseId, Function.identity()));
+        List<CourseResponseDto> content = pageIds.stream()
+                .map(coursesById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, orderedIds.size());
     }
     
-    @Override
-    @Transactional(readOnly = true)
-    public List<CourseResponseDto> getCoursesByDuration(Integer minWeeks, Integer maxWeeks) {
-        List<Course> courses = courseRepository.findByDurationWeeksBetween(minWeeks, maxWeeks);
-        return courses.stream()
-                .map(course -> {
-                    Long enrollmentCount = enrollmentRepository.countActiveByCourseId(course.getCourseId());
-                    return mapToCourseResponseDto(course, enrollmentCount.intValue());
-                })
+    // Sorts the IDs in SQL up to the end of the requested page. The IDs go in chunk by chunk, each sorted
+    // together with the best IDs found so far, so no IN list grows past a chunk plus a page's worth of IDs
+    // however many courses match
+    private List<Integer> sortIds(List<Integer> ids, Pageable pageable) {
+        int needed = pageable.isPaged()
+                ? (int) Math.min(pageable.getOffset() + pageable.getPageSize(), ids.size())
+                : ids.size();
+        if (needed == 0) {
+            return List.of();
+        }
+        
+        List<Integer> best = List.of();
+        for (int from = 0; from < ids.size(); from += SEARCH_FILTER_CHUNK_SIZE) {
+            List<Integer> candidates = new ArrayList<>(best);
+            candidates.addAll(ids.subList(from, Math.min(from + SEARCH_FILTER_CHUNK_SIZE, ids.size())));
+            best = courseRepository.findSortedCourseIds(candidates, pageable.getSort(), needed);
+        }
+        return best;
+    }
+    
+    // Keeps the ranked IDs that also match the SQL filters, in rank order
+    private List<Integer> filterRankedIds(CourseSearchCriteria filters, List<Integer> rankedIds) {
+        if (filters.getInstructorId() == null && filters.getMinWeeks() == null
+                && filters.getMaxWeeks() == null && !filters.isAvailableOnly()) {
+            return rankedIds;
+        }
+        
+        Set<Integer> matchingIds = new HashSet<>();
+        for (int from = 0; from < rankedIds.size(); from += SEARCH_FILTER_CHUNK_SIZE) {
+            List<Integer> chunk = rankedIds.subList(from, Math.min(from + SEARCH_FILTER_CHUNK_SIZE, rankedIds.size()));
+            matchingIds.addAll(courseRepository.findMatchingCourseIds(filters, chunk));
+        }
+        return rankedIds.stream()
+                .filter(matchingIds::contains)
                 .collect(Collectors.toList());
     }
     
     @Override
+    @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#courseId")
     public EnrollmentResponseDto enrollStudent(Integer courseId, Integer studentId) {
         log.info("Enrolling student {} in course {}", studentId, courseId);
         
-        // Verify course exists
-        Course course = courseRepository.findById(courseId)
+        // Verify course exists; rejects full courses early without locking the course row
+        Integer availableSeats = courseRepository.findAvailableSeatsById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + courseId));
+        if (availableSeats <= 0) {
+            throw new CourseFullException("Course is full. No available spots.");
+        }
         
         // Verify student exists
         Student student = studentRepository.findById(studentId)
@@ -188,97 +348,415 @@ public class CourseServiceImpl implements CourseService {
             throw new DuplicateResourceException("Student is already enrolled in this course");
         }
         
-        // Check if course has available spots
-        Long currentEnrollments = enrollmentRepository.countActiveByCourseId(courseId);
-        if (currentEnrollments >= course.getMaxStudents()) {
-            throw new IllegalArgumentException("Course is full. No available spots.");
-        }
-        
         Enrollment enrollment = new Enrollment();
         enrollment.setStudent(student);
-        enrollment.setCourse(course);
+        enrollment.setCourse(courseRepository.getReferenceById(courseId));
         enrollment.setStatus(Enrollment.EnrollmentStatus.ACTIVE);
         
-        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        Enrollment savedEnrollment;
+        try {
+            savedEnrollment = enrollmentRepository.save(enrollment);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request for the same student won the unique (student, course) key
+            throw new DuplicateResourceException("Student is already enrolled in this course");
+        }
+        
+        outboxService.record(OutboxEvent.EventType.ENROLLMENT_CREATED, courseId, Map.of(
+                "courseId", courseId, "studentId", studentId, "enrollmentId", savedEnrollment.getEnrollmentId(), "source", "DIRECT"));
+        
+        // Reserve the seat last so the course row lock is held only until commit;
+        // if the course filled up meanwhile, the exception rolls back the insert
+        if (courseRepository.reserveSeat(courseId) == 0) {
+            throw new CourseFullException("Course is full. No available spots.");
+        }
+        TransactionCallbacks.afterCommit(() -> enrollmentBitmapIndex.add(courseId, studentId));
         log.info("Student enrolled successfully: {} in course {}", studentId, courseId);
         
         return mapToEnrollmentResponseDto(savedEnrollment);
     }
     
     @Override
+    @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#courseId")
+    public BulkEnrollmentResultDto bulkEnrollStudents(Integer courseId, List<Integer> studentIds) {
+        log.info("Bulk enrolling {} student(s) in course {}", studentIds.size(), courseId);
+        
+        Integer availableSeats = courseRepository.findAvailableSeatsById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + courseId));
+        
+        // Validate the whole cohort with set-based queries instead of per-student lookups
+        Set<Integer> requestedIds = new LinkedHashSet<>(studentIds);
+        Set<Integer> missingIds = new LinkedHashSet<>(requestedIds);
+        missingIds.removeAll(studentRepository.findExistingIds(requestedIds));
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Students not found with IDs: " + missingIds);
+        }
+        
+        Set<Integer> alreadyEnrolled = new HashSet<>(enrollmentRepository.findEnrolledStudentIds(courseId, requestedIds));
+        List<Integer> toEnroll = requestedIds.stream()
+                .filter(id -> !alreadyEnrolled.contains(id))
+                .collect(Collectors.toList());
+        
+        if (!toEnroll.isEmpty()) {
+            if (availableSeats < toEnroll.size()) {
+                throw new IllegalArgumentException("Course has only " + availableSeats + " available spots for " + toEnroll.size() + " students.");
+            }
+            
+            try {
+                enrollmentRepository.batchInsertActiveEnrollments(courseId, toEnroll);
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent enrollment for one of these students won the unique (student, course) key
+                throw new DuplicateResourceException("One or more students were enrolled in this course concurrently");
+            }
+            
+            outboxService.record(OutboxEvent.EventType.ENROLLMENTS_BULK_CREATED, courseId,
+                    Map.of("courseId", courseId, "studentIds", toEnroll));
+            
+            // Same ordering as enrollStudent: the course row is locked only for the rest of the transaction
+            if (courseRepository.reserveSeats(courseId, toEnroll.size()) == 0) {
+                throw new IllegalArgumentException("Course does not have " + toEnroll.size() + " available spots.");
+            }
+            TransactionCallbacks.afterCommit(() -> enrollmentBitmapIndex.add(courseId, toEnroll));
+        }
+        
+        log.info("Bulk enrolled {} student(s) in course {}, {} already enrolled", toEnroll.size(), courseId, alreadyEnrolled.size());
+        return new BulkEnrollmentResultDto(courseId, toEnroll,
+                requestedIds.stream().filter(alreadyEnrolled::contains).collect(Collectors.toList()));
+    }
+    
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#courseId")
     public void unenrollStudent(Integer courseId, Integer studentId) {
         log.info("Unenrolling student {} from course {}", studentId, courseId);
         
         Enrollment enrollment = enrollmentRepository.findByStudentStudentIdAndCourseCourseId(studentId, courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found for student " + studentId + " in course " + courseId));
         
+        boolean wasActive = enrollment.isActive();
         enrollment.markAsDropped();
         enrollmentRepository.save(enrollment);
+        outboxService.record(OutboxEvent.EventType.ENROLLMENT_DROPPED, courseId, Map.of("courseId", courseId, "studentId", studentId));
+        if (wasActive) {
+            courseRepository.releaseSeat(courseId);
+            TransactionCallbacks.afterCommit(() -> enrollmentBitmapIndex.remove(courseId, studentId));
+            // The freed seat goes to the head of the waitlist in this same transaction
+            promoteFromWaitlist(courseId);
+        }
         
         log.info("Student unenrolled successfully: {} from course {}", studentId, courseId);
     }
     
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.COURSES, allEntries = true)
+    public void releaseSeatsOfStudent(Integer studentId) {
+        List<Integer> courseIds = enrollmentRepository.findActiveCourseIdsByStudentId(studentId);
+        if (courseIds.isEmpty()) {
+            return;
+        }
+        
+        // Must run before the delete: the enrollment rows identify the courses to update
+        courseRepository.releaseSeatsOfStudent(studentId);
+        // Freed seats go to the waitlists first, as with an unenroll
+        for (Integer courseId : courseIds) {
+            promoteFromWaitlist(courseId);
+        }
+        log.info("Released {} seat(s) held by student {}", courseIds.size(), studentId);
+    }
+    
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#courseId")
+    public WaitlistEntryDto joinWaitlist(Integer courseId, Integer studentId) {
+        log.info("Adding student {} to the waitlist of course {}", studentId, courseId);
+        
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with ID: " + courseId);
+        }
+        if (!studentRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("Student not found with ID: " + studentId);
+        }
+        if (enrollmentRepository.existsByStudentStudentIdAndCourseCourseId(studentId, courseId)) {
+            throw new DuplicateResourceException("Student is already enrolled in this course");
+        }
+        if (waitlistEntryRepository.existsByStudentStudentIdAndCourseCourseId(studentId, courseId)) {
+            throw new DuplicateResourceException("Student is already on the waitlist for this course");
+        }
+        
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setStudent(studentRepository.getReferenceById(studentId));
+        entry.setCourse(courseRepository.getReferenceById(courseId));
+        WaitlistEntry savedEntry = waitlistEntryRepository.save(entry);
+        
+        // A seat may have been freed after the caller saw the course full, while nobody was waiting
+        if (promoteFromWaitlist(courseId) > 0 && !waitlistEntryRepository.existsById(savedEntry.getWaitlistEntryId())) {
+            log.info("Student {} was enrolled in course {} straight from the waitlist", studentId, courseId);
+            return new WaitlistEntryDto(courseId, studentId, 0L, savedEntry.getJoinedAt());
+        }
+        
+        return mapToWaitlistEntryDto(savedEntry);
+    }
+    
+    @Override
+    public void leaveWaitlist(Integer courseId, Integer studentId) {
+        WaitlistEntry entry = waitlistEntryRepository.findByStudentStudentIdAndCourseCourseId(studentId, courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found for student " + studentId + " in course " + courseId));
+        
+        waitlistEntryRepository.delete(entry);
+        log.info("Student {} left the waitlist of course {}", studentId, courseId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public WaitlistEntryDto getWaitlistEntry(Integer courseId, Integer studentId) {
+        WaitlistEntry entry = waitlistEntryRepository.findByStudentStudentIdAndCourseCourseId(studentId, courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found for student " + studentId + " in course " + courseId));
+        return mapToWaitlistEntryDto(entry);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<EnrollmentResponseDto> getCourseEnrollments(Integer courseId) {
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseCourseIdAndStatus(courseId, Enrollment.EnrollmentStatus.ACTIVE);
-        return enrollments.stream()
-                .map(this::mapToEnrollmentResponseDto)
-                .collect(Collectors.toList());
+        return enrollmentRepository.findActiveEnrollmentViewsByCourseId(courseId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<EnrollmentResponseDto> getCourseRoster(Integer courseId, Pageable pageable) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with ID: " + courseId);
+        }
+        
+        // The projection joins student and course, so public sort keys are translated to query aliases
+        Sort sort = Sort.unsorted();
+        for (Sort.Order order : pageable.getSort()) {
+            List<String> paths = ROSTER_SORT_PATHS.get(order.getProperty());
+            if (paths == null) {
+                throw new IllegalArgumentException("Cannot sort roster by: " + order.getProperty());
+            }
+            sort = sort.and(JpaSort.unsafe(order.getDirection(), paths));
+        }
+        // Enrollment ID breaks ties so pages do not overlap
+        sort = sort.and(JpaSort.unsafe(Sort.Direction.ASC, "e.enrollmentId"));
+        
+        Pageable rosterPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return enrollmentRepository.findActiveEnrollmentViewsByCourseId(courseId, rosterPageable);
+    }
+    
+    // History outlives the course and student rows, so neither is required to still exist
+    @Override
+    @Transactional(readOnly = true)
+    public Page<EnrollmentHistoryDto> getCourseEnrollmentHistory(Integer courseId, Pageable pageable) {
+        return enrollmentHistoryRepository.findHistoryByCourseId(courseId, pageable);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Page<EnrollmentHistoryDto> getStudentEnrollmentHistory(Integer studentId, Pageable pageable) {
+        return enrollmentHistoryRepository.findHistoryByStudentId(studentId, pageable);
+    }
+    
+    // Not cached as a listing: it changes with every enrollment of the student, and the bitmap index
+    // already answers it without a query
     @Override
     @Transactional(readOnly = true)
     public List<CourseResponseDto> getStudentCourses(Integer studentId) {
-        List<Course> courses = courseRepository.findCoursesByStudentId(studentId);
-        return courses.stream()
-                .map(course -> {
-                    Long enrollmentCount = enrollmentRepository.countActiveByCourseId(course.getCourseId());
-                    return mapToCourseResponseDto(course, enrollmentCount.intValue());
-                })
-                .collect(Collectors.toList());
+        if (!enrollmentBitmapIndex.isReady()) {
+            return courseRepository.findCourseViewsByStudentId(studentId);
+        }
+        // Course IDs come from the bitmap index; only the course rows are read, by primary key
+        int[] courseIds = enrollmentBitmapIndex.getCourseIds(studentId);
+        if (courseIds.length == 0) {
+            return List.of();
+        }
+        return courseViews(Arrays.stream(courseIds).boxed().collect(Collectors.toList()));
     }
     
     @Override
     @Transactional(readOnly = true)
     public boolean isStudentEnrolled(Integer courseId, Integer studentId) {
+        // Answered from memory once the bitmap index is built; the query is only a startup fallback
+        if (enrollmentBitmapIndex.isReady()) {
+            return enrollmentBitmapIndex.isEnrolled(courseId, studentId);
+        }
         return courseRepository.isStudentEnrolledInCourse(studentId, courseId);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public Integer getCourseEnrollmentCount(Integer courseId) {
-        return enrollmentRepository.countActiveByCourseId(courseId).intValue();
+    public CourseStatsDto getCourseStats(Integer courseId) {
+        List<CourseStatsDto> stats = courseRepository.findCourseStatsByIds(List.of(courseId));
+        if (stats.isEmpty()) {
+            throw new ResourceNotFoundException("Course not found with ID: " + courseId);
+        }
+        return stats.get(0);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public Integer getCourseAvailableSpots(Integer courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + courseId));
+    public List<CourseStatsDto> getCourseStats(List<Integer> courseIds) {
+        // Unknown course IDs are omitted; the rest keep the requested order
+        Map<Integer, CourseStatsDto> statsById = courseRepository.findCourseStatsByIds(new HashSet<>(courseIds)).stream()
+                .collect(Collectors.toMap(CourseStatsDto::getCourseId, Function.identity()));
+        return courseIds.stream()
+                .distinct()
+                .map(statsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    // Moves waitlisted students into free seats, oldest entry first, within the caller's transaction.
+    // The seat is reserved before the head entry is locked, the same course-then-waitlist order for every caller.
+    private int promoteFromWaitlist(Integer courseId) {
+        int promoted = 0;
+        while (waitlistEntryRepository.existsByCourseCourseId(courseId) && courseRepository.reserveSeat(courseId) > 0) {
+            Optional<WaitlistEntry> head = waitlistEntryRepository.findFirstByCourseCourseIdOrderByWaitlistEntryIdAsc(courseId);
+            if (head.isEmpty()) {
+                // Another transaction emptied the waitlist first
+                courseRepository.releaseSeat(courseId);
+                break;
+            }
+            
+            WaitlistEntry entry = head.get();
+            waitlistEntryRepository.delete(entry);
+            Integer studentId = entry.getStudent().getStudentId();
+            if (enrollmentRepository.existsByStudentStudentIdAndCourseCourseId(studentId, courseId)) {
+                // Enrolled some other way while waiting; the seat goes to the next entry
+                courseRepository.releaseSeat(courseId);
+                continue;
+            }
+            
+            Enrollment enrollment = new Enrollment();
+            enrollment.setStudent(entry.getStudent());
+            enrollment.setCourse(entry.getCourse());
+            enrollment.setStatus(Enrollment.EnrollmentStatus.ACTIVE);
+            Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+            outboxService.record(OutboxEvent.EventType.ENROLLMENT_CREATED, courseId, Map.of(
+                    "courseId", courseId, "studentId", studentId, "enrollmentId", savedEnrollment.getEnrollmentId(), "source", "WAITLIST"));
+            TransactionCallbacks.afterCommit(() -> enrollmentBitmapIndex.add(courseId, studentId));
+            promoted++;
+            log.info("Promoted student {} from the waitlist of course {}", studentId, courseId);
+        }
+        return promoted;
+    }
+    
+    // Listings cache only course IDs and read the views through COURSES, so seat counts are as fresh as the
+    // per-course entries and an enrollment evicts a single course instead of every cached listing
+    private List<CourseResponseDto> cachedCourses(SimpleKey key, Supplier<List<CourseResponseDto>> query) {
+        Cache listings = cacheManager.getCache(CacheConfig.COURSE_LISTS);
+        @SuppressWarnings("unchecked")
+        List<Integer> cached = listings.get(key, List.class);
+        if (cached != null) {
+            return courseViews(cached);
+        }
+        
+        List<CourseResponseDto> courses = query.get();
+        cacheViews(courses);
+        listings.put(key, courseIds(courses));
+        return courses;
+    }
+    
+    private Page<CourseResponseDto> cachedPage(SimpleKey key, Pageable pageable, Supplier<Page<CourseResponseDto>> query) {
+        Cache listings = cacheManager.getCache(CacheConfig.COURSE_LISTS);
+        PageIds cached = listings.get(key, PageIds.class);
+        if (cached != null) {
+            return new PageImpl<>(courseViews(cached.courseIds()), pageable, cached.total());
+        }
+        
+        Page<CourseResponseDto> page = query.get();
+        cacheViews(page.getContent());
+        listings.put(key, new PageIds(courseIds(page.getContent()), page.getTotalElements()));
+        return page;
+    }
+    
+    // Views of the given courses in the given order, from COURSES where cached and loaded by ID otherwise
+    private List<CourseResponseDto> courseViews(List<Integer> courseIds) {
+        Cache courses = cacheManager.getCache(CacheConfig.COURSES);
+        Map<Integer, CourseResponseDto> viewsById = new HashMap<>();
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer courseId : courseIds) {
+            CourseResponseDto view = courses.get(courseId, CourseResponseDto.class);
+            if (view != null) {
+                viewsById.put(courseId, view);
+            } else {
+                missingIds.add(courseId);
+            }
+        }
         
-        Long currentEnrollments = enrollmentRepository.countActiveByCourseId(courseId);
-        return Math.max(0, course.getMaxStudents() - currentEnrollments.intValue());
+        for (int from = 0; from < missingIds.size(); from += SEARCH_FILTER_CHUNK_SIZE) {
+            List<CourseResponseDto> loaded = courseRepository.findCourseViewsByIds(
+                    missingIds.subList(from, Math.min(from + SEARCH_FILTER_CHUNK_SIZE, missingIds.size())));
+            cacheViews(loaded);
+            loaded.forEach(view -> viewsById.put(view.getCourseId(), view));
+        }
+        return courseIds.stream()
+                .map(viewsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    private void cacheViews(List<CourseResponseDto> views) {
+        Cache courses = cacheManager.getCache(CacheConfig.COURSES);
+        views.forEach(view -> courses.put(view.getCourseId(), view));
+    }
+    
+    private static List<Integer> courseIds(List<CourseResponseDto> views) {
+        return views.stream().map(CourseResponseDto::getCourseId).collect(Collectors.toList());
+    }
+    
+    private static boolean sortsBySeats(Pageable pageable) {
+        return pageable.getSort().stream().anyMatch(order -> SEAT_SORT_PROPERTIES.contains(order.getProperty()));
+    }
+    
+    private record PageIds(List<Integer> courseIds, long total) {
+    }
+    
+    private record CursorPageIds(List<Integer> courseIds, String nextCursor, boolean hasNext) {
+    }
+    
+    // Cursor helpers: the cursor is the (createdAt, courseId) of the last row, Base64url-encoded
+    private String encodeCursor(CourseResponseDto course) {
+        String position = course.getCreatedAt() + "|" + course.getCourseId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            LocalDateTime.parse(position[0]);
+            Integer.valueOf(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
     
     // Helper mapping methods
-    private CourseResponseDto mapToCourseResponseDto(Course course, Integer currentEnrollments) {
+    private CourseResponseDto mapToCourseResponseDto(Course course) {
         CourseResponseDto dto = new CourseResponseDto();
         dto.setCourseId(course.getCourseId());
         dto.setTitle(course.getTitle());
         dto.setDescription(course.getDescription());
         dto.setDurationWeeks(course.getDurationWeeks());
         dto.setMaxStudents(course.getMaxStudents());
-        dto.setCurrentEnrollments(currentEnrollments);
+        dto.setCurrentEnrollments(course.getActiveEnrollmentCount());
         dto.setInstructorId(course.getInstructor().getInstructorId());
         dto.setInstructorName(course.getInstructor().getFirstName() + " " + course.getInstructor().getLastName());
         dto.setInstructorEmail(course.getInstructor().getEmail());
         dto.setInstructorDepartment(course.getInstructor().getDepartment());
         dto.setCreatedAt(course.getCreatedAt());
         dto.setUpdatedAt(course.getUpdatedAt());
+        dto.setEnrollmentVersion(course.getEnrollmentVersion());
+        dto.setInstructorUpdatedAt(course.getInstructor().getUpdatedAt());
         return dto;
     }
     
+    private WaitlistEntryDto mapToWaitlistEntryDto(WaitlistEntry entry) {
+        long position = waitlistEntryRepository.countByCourseCourseIdAndWaitlistEntryIdLessThanEqual(
+                entry.getCourse().getCourseId(), entry.getWaitlistEntryId());
+        return new WaitlistEntryDto(entry.getCourse().getCourseId(), entry.getStudent().getStudentId(), position, entry.getJoinedAt());
+    }
+    
     private EnrollmentResponseDto mapToEnrollmentResponseDto(Enrollment enrollment) {
         EnrollmentResponseDto dto = new EnrollmentResponseDto();
         dto.setEnrollmentId(enrollment.getEnrollmentId());
@@ -0,0 +1,92 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.entity.JobCheckpoint;
+import com.eduelevate.lms.repository.EnrollmentHistoryRepository;
+import com.eduelevate.lms.repository.EnrollmentRepository;
+import com.eduelevate.lms.repository.JobCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Moves DROPPED and COMPLETED enrollments older than minAgeDays into enrollment_history, so the hot
+// enrollment table only holds current rows. Works in chunks, one transaction each, pausing between chunks;
+// the last archived ID is checkpointed with every chunk, so an interrupted pass resumes where it stopped.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentArchiver {
+    
+    static final String JOB_NAME = "enrollment-archive";
+    
+    private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentHistoryRepository enrollmentHistoryRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.enrollmentArchive.minAgeDays:180}")
+    private int minAgeDays;
+    
+    @Value("${app.enrollmentArchive.chunkSize:500}")
+    private int chunkSize;
+    
+    @Value("${app.enrollmentArchive.pauseMs:200}")
+    private long pauseMs;
+    
+    @Scheduled(initialDelayString = "${app.enrollmentArchive.initialDelayMs:60000}",
+               fixedDelayString = "${app.enrollmentArchive.intervalMs:86400000}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        int archived = 0;
+        
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+            
+            // Throttle so the job never competes with registration traffic for locks and I/O
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        
+        if (archived > 0) {
+            log.info("Archived {} non-active enrollment(s) older than {}", archived, cutoff);
+        }
+    }
+    
+    private int archiveChunk(LocalDateTime cutoff) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> {
+                    JobCheckpoint created = new JobCheckpoint();
+                    created.setJobName(JOB_NAME);
+                    return created;
+                });
+        
+        List<Integer> enrollmentIds = enrollmentRepository.findArchivableIds(
+                checkpoint.getLastProcessedId().intValue(), cutoff, PageRequest.of(0, chunkSize));
+        if (enrollmentIds.isEmpty()) {
+            // End of this pass; older rows that become archivable later are picked up by the next one
+            checkpoint.setLastProcessedId(0L);
+            jobCheckpointRepository.save(checkpoint);
+            return 0;
+        }
+        
+        enrollmentHistoryRepository.copyFromEnrollments(enrollmentIds);
+        enrollmentRepository.deleteAllByEnrollmentIdIn(enrollmentIds);
+        checkpoint.setLastProcessedId(enrollmentIds.get(enrollmentIds.size() - 1).longValue());
+        jobCheckpointRepository.save(checkpoint);
+        return enrollmentIds.size();
+    }
+}
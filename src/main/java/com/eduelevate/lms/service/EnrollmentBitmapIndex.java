@@ -0,0 +1,189 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.repository.EnrollmentPair;
+import com.eduelevate.lms.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory index of ACTIVE enrollments as compressed bitmaps, in both directions:
+// students per course for membership checks and courses per student for "my courses".
+// Built on startup and kept current after each committed enrollment change made through this instance.
+// Changes it cannot see (writes from other instances, rows removed by ON DELETE CASCADE, manual fixes)
+// are picked up by a periodic full rebuild.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentBitmapIndex {
+    
+    private final EnrollmentRepository enrollmentRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    private Map<Integer, RoaringBitmap> studentsByCourse = new HashMap<>();
+    private Map<Integer, RoaringBitmap> coursesByStudent = new HashMap<>();
+    // Changes applied while a rebuild is loading, replayed onto the new maps before they are swapped in;
+    // null when no rebuild is running. Guarded by the write lock
+    private List<Delta> changesDuringRebuild;
+    private volatile boolean ready = false;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.enrollmentIndex.resyncIntervalMs:600000}",
+               fixedDelayString = "${app.enrollmentIndex.resyncIntervalMs:600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            // Recording starts before the load, so a change committed after the snapshot is replayed, not lost;
+            // changes already in the snapshot are replayed too, which is harmless as every change is idempotent
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            
+            // Loaded without the lock, so lookups keep being answered from the current maps meanwhile
+            Map<Integer, RoaringBitmap> newStudentsByCourse = new HashMap<>();
+            Map<Integer, RoaringBitmap> newCoursesByStudent = new HashMap<>();
+            try (Stream<EnrollmentPair> enrollments = enrollmentRepository.streamActiveEnrollmentPairs()) {
+                enrollments.forEach(enrollment -> {
+                    newStudentsByCourse.computeIfAbsent(enrollment.getCourseId(), id -> new RoaringBitmap()).add(enrollment.getStudentId());
+                    newCoursesByStudent.computeIfAbsent(enrollment.getStudentId(), id -> new RoaringBitmap()).add(enrollment.getCourseId());
+                });
+                newStudentsByCourse.values().forEach(RoaringBitmap::runOptimize);
+                newCoursesByStudent.values().forEach(RoaringBitmap::runOptimize);
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                replayed = changesDuringRebuild.size();
+                changesDuringRebuild.forEach(change -> change.applyTo(newStudentsByCourse, newCoursesByStudent));
+                changesDuringRebuild = null;
+                studentsByCourse = newStudentsByCourse;
+                coursesByStudent = newCoursesByStudent;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Enrollment bitmap index built: {} courses, {} students ({} change(s) replayed)",
+                    newStudentsByCourse.size(), newCoursesByStudent.size(), replayed);
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public boolean isEnrolled(Integer courseId, Integer studentId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap students = studentsByCourse.get(courseId);
+            return students != null && students.contains(studentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // IDs of the courses a student is actively enrolled in, ascending
+    public int[] getCourseIds(Integer studentId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap courses = coursesByStudent.get(studentId);
+            return courses == null ? new int[0] : courses.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void add(Integer courseId, Collection<Integer> studentIds) {
+        List<Integer> added = List.copyOf(studentIds);
+        apply((byCourse, byStudent) -> {
+            RoaringBitmap students = byCourse.computeIfAbsent(courseId, id -> new RoaringBitmap());
+            for (Integer studentId : added) {
+                students.add(studentId);
+                byStudent.computeIfAbsent(studentId, id -> new RoaringBitmap()).add(courseId);
+            }
+        });
+    }
+    
+    public void add(Integer courseId, Integer studentId) {
+        add(courseId, List.of(studentId));
+    }
+    
+    public void remove(Integer courseId, Integer studentId) {
+        apply((byCourse, byStudent) -> {
+            removeBit(byCourse, courseId, studentId);
+            removeBit(byStudent, studentId, courseId);
+        });
+    }
+    
+    public void removeCourse(Integer courseId) {
+        apply((byCourse, byStudent) -> {
+            RoaringBitmap students = byCourse.remove(courseId);
+            if (students != null) {
+                students.forEach((int studentId) -> removeBit(byStudent, studentId, courseId));
+            }
+        });
+    }
+    
+    public void removeStudent(Integer studentId) {
+        apply((byCourse, byStudent) -> {
+            RoaringBitmap courses = byStudent.remove(studentId);
+            if (courses != null) {
+                courses.forEach((int courseId) -> removeBit(byCourse, courseId, studentId));
+            }
+        });
+    }
+    
+    private void apply(Delta change) {
+        lock.writeLock().lock();
+        try {
+            change.applyTo(studentsByCourse, coursesByStudent);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Drops empty bitmaps so removed courses and students do not linger in the maps
+    private static void removeBit(Map<Integer, RoaringBitmap> bitmaps, int key, int value) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(value);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+    
+    // One enrollment change, applied to a pair of maps (the live ones, or a rebuild's new ones)
+    @FunctionalInterface
+    private interface Delta {
+        void applyTo(Map<Integer, RoaringBitmap> studentsByCourse, Map<Integer, RoaringBitmap> coursesByStudent);
+    }
+}
@@ -0,0 +1,81 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.config.CacheConfig;
+import com.eduelevate.lms.repository.CourseEnrollmentCount;
+import com.eduelevate.lms.repository.CourseRepository;
+import com.eduelevate.lms.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// Periodically repairs drift between Course.activeEnrollmentCount / availableSeats and the enrollment table.
+// Counters are compared in batches and only drifted courses are recounted.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentCountReconciler {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CacheManager cacheManager;
+    
+    @Scheduled(initialDelayString = "${app.enrollmentReconcileInitialDelayMs:30000}",
+               fixedDelayString = "${app.enrollmentReconcileIntervalMs:3600000}")
+    public void reconcile() {
+        List<Integer> inconsistentSeats = courseRepository.findCourseIdsWithInconsistentSeats();
+        int repaired = inconsistentSeats.isEmpty() ? 0 : courseRepository.recountActiveEnrollments(inconsistentSeats);
+        Pageable pageable = PageRequest.of(0, BATCH_SIZE, Sort.by("courseId"));
+        Slice<CourseEnrollmentCount> counters;
+        
+        do {
+            counters = courseRepository.findActiveEnrollmentCounters(pageable);
+            repaired += repairBatch(counters.getContent());
+            pageable = counters.nextPageable();
+        } while (counters.hasNext());
+        
+        if (repaired > 0) {
+            // Cached course responses may carry the drifted counts
+            cacheManager.getCache(CacheConfig.COURSES).clear();
+            cacheManager.getCache(CacheConfig.COURSE_LISTS).clear();
+            log.warn("Repaired active enrollment counters for {} course(s)", repaired);
+        } else {
+            log.debug("Active enrollment counters are consistent");
+        }
+    }
+    
+    private int repairBatch(List<CourseEnrollmentCount> storedCounters) {
+        if (storedCounters.isEmpty()) {
+            return 0;
+        }
+        
+        List<Integer> courseIds = storedCounters.stream()
+                .map(CourseEnrollmentCount::getCourseId)
+                .collect(Collectors.toList());
+        Map<Integer, Long> actualCounts = enrollmentRepository.countActiveByCourseIds(courseIds).stream()
+                .collect(Collectors.toMap(CourseEnrollmentCount::getCourseId, CourseEnrollmentCount::getActiveCount));
+        
+        List<Integer> driftedCourseIds = storedCounters.stream()
+                .filter(counter -> !Objects.equals(counter.getActiveCount(),
+                        actualCounts.getOrDefault(counter.getCourseId(), 0L)))
+                .map(CourseEnrollmentCount::getCourseId)
+                .collect(Collectors.toList());
+        
+        if (driftedCourseIds.isEmpty()) {
+            return 0;
+        }
+        return courseRepository.recountActiveEnrollments(driftedCourseIds);
+    }
+}
@@ -0,0 +1,183 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.dto.course.EnrollmentResponseDto;
+import com.eduelevate.lms.dto.course.EnrollmentTicketDto;
+import com.eduelevate.lms.dto.course.WaitlistEntryDto;
+import com.eduelevate.lms.exception.CourseFullException;
+import com.eduelevate.lms.exception.ServiceBusyException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded admission queue for enrollments. A fixed set of workers calls enrollStudent, so a registration
+// spike uses at most workerCount database connections and no Tomcat threads wait on it.
+// Requests are FIFO within a course and courses are served round-robin, one worker per course at a time,
+// so a hot course cannot starve the others (and its row lock is never contended by its own queue).
+@Component
+@Slf4j
+public class EnrollmentQueue {
+    
+    private final CourseService courseService;
+    private final int workerCount;
+    private final int capacity;
+    
+    // Ticket status for polling; entries are replaced, never mutated, as a request progresses
+    private final Cache<String, EnrollmentTicketDto> tickets;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition courseReady = lock.newCondition();
+    // Pending requests per course; a course keeps its entry while a worker is processing it
+    private final Map<Integer, ArrayDeque<EnrollmentTicketDto>> pendingByCourse = new HashMap<>();
+    // Courses with pending requests and no worker on them, in the order they will be served
+    private final ArrayDeque<Integer> readyCourses = new ArrayDeque<>();
+    private int pendingCount;
+    
+    private ExecutorService workers;
+    
+    public EnrollmentQueue(CourseService courseService,
+                           @Value("${app.enrollmentQueue.workers:4}") int workerCount,
+                           @Value("${app.enrollmentQueue.capacity:10000}") int capacity,
+                           @Value("${app.enrollmentQueue.ticketTtlSeconds:3600}") long ticketTtlSeconds) {
+        this.courseService = courseService;
+        this.workerCount = workerCount;
+        this.capacity = capacity;
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(capacity * 10L)
+                .expireAfterWrite(Duration.ofSeconds(ticketTtlSeconds))
+                .build();
+    }
+    
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "enrollment-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::work);
+        }
+    }
+    
+    @PreDestroy
+    void stop() {
+        workers.shutdownNow();
+    }
+    
+    public EnrollmentTicketDto submit(Integer courseId, Integer studentId) {
+        EnrollmentTicketDto ticket = new EnrollmentTicketDto(UUID.randomUUID().toString(), courseId, studentId,
+                EnrollmentTicketDto.Status.QUEUED, null, null, null, LocalDateTime.now(), null);
+        
+        lock.lock();
+        try {
+            if (pendingCount >= capacity) {
+                throw new ServiceBusyException("Enrollment queue is full. Please try again later.");
+            }
+            tickets.put(ticket.getTicketId(), ticket);
+            ArrayDeque<EnrollmentTicketDto> courseQueue = pendingByCourse.get(courseId);
+            if (courseQueue == null) {
+                courseQueue = new ArrayDeque<>();
+                pendingByCourse.put(courseId, courseQueue);
+                readyCourses.addLast(courseId);
+                courseReady.signal();
+            }
+            courseQueue.addLast(ticket);
+            pendingCount++;
+        } finally {
+            lock.unlock();
+        }
+        
+        log.debug("Queued enrollment of student {} in course {} as ticket {}", studentId, courseId, ticket.getTicketId());
+        return ticket;
+    }
+    
+    public Optional<EnrollmentTicketDto> getTicket(String ticketId) {
+        return Optional.ofNullable(tickets.getIfPresent(ticketId));
+    }
+    
+    private void work() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                EnrollmentTicketDto ticket = take();
+                try {
+                    process(ticket);
+                } finally {
+                    release(ticket.getCourseId());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private EnrollmentTicketDto take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (readyCourses.isEmpty()) {
+                courseReady.await();
+            }
+            Integer courseId = readyCourses.pollFirst();
+            pendingCount--;
+            return pendingByCourse.get(courseId).pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Puts the course back at the end of the rotation if more requests arrived for it meanwhile
+    private void release(Integer courseId) {
+        lock.lock();
+        try {
+            if (pendingByCourse.get(courseId).isEmpty()) {
+                pendingByCourse.remove(courseId);
+            } else {
+                readyCourses.addLast(courseId);
+                courseReady.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void process(EnrollmentTicketDto ticket) {
+        EnrollmentTicketDto.Status status;
+        EnrollmentResponseDto enrollment = null;
+        WaitlistEntryDto waitlistEntry = null;
+        String error = null;
+        
+        try {
+            try {
+                enrollment = courseService.enrollStudent(ticket.getCourseId(), ticket.getStudentId());
+                status = EnrollmentTicketDto.Status.ENROLLED;
+            } catch (CourseFullException e) {
+                waitlistEntry = courseService.joinWaitlist(ticket.getCourseId(), ticket.getStudentId());
+                status = waitlistEntry.getPosition() == 0 ? EnrollmentTicketDto.Status.ENROLLED : EnrollmentTicketDto.Status.WAITLISTED;
+            }
+        } catch (RuntimeException e) {
+            status = EnrollmentTicketDto.Status.FAILED;
+            error = e.getMessage();
+            log.info("Queued enrollment {} failed: {}", ticket.getTicketId(), e.getMessage());
+        }
+        
+        tickets.put(ticket.getTicketId(), new EnrollmentTicketDto(ticket.getTicketId(), ticket.getCourseId(), ticket.getStudentId(),
+                status, enrollment, waitlistEntry, error, ticket.getSubmittedAt(), LocalDateTime.now()));
+    }
+}
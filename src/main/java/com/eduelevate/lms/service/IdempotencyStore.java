@@ -0,0 +1,109 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.entity.IdempotencyRecord;
+import com.eduelevate.lms.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Responses of requests made with an Idempotency-Key, so retries can be answered without running them again.
+// Always kept in a bounded, TTL-evicted Caffeine cache; with app.idempotency.persistent=true they are also
+// written to idempotency_record so replays survive restarts and work across instances.
+@Component
+@Slf4j
+public class IdempotencyStore {
+    
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final boolean persistent;
+    private final Duration ttl;
+    private final Cache<String, StoredResponse> responses;
+    // Keys whose first request is still running
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            @Value("${app.idempotency.persistent:false}") boolean persistent,
+                            @Value("${app.idempotency.maxSize:100000}") long maxSize,
+                            @Value("${app.idempotency.ttlSeconds:86400}") long ttlSeconds) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.persistent = persistent;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+    
+    // Keys are scoped to the caller and request URI, so clients cannot collide or replay each other's responses
+    public String scopedKey(String caller, String requestUri, String clientKey) {
+        return hash((caller + '\n' + requestUri + '\n' + clientKey).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Stored with the response, so a key reused with a different request body can be told apart from a retry
+    public String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    public Optional<StoredResponse> find(String key) {
+        StoredResponse response = responses.getIfPresent(key);
+        if (response == null && persistent) {
+            response = idempotencyRecordRepository.findByIdempotencyKeyAndCreatedAtAfter(key, LocalDateTime.now().minus(ttl))
+                    .map(record -> new StoredResponse(record.getRequestHash(), record.getStatus(), record.getContentType(), record.getLocation(),
+                            record.getBody() == null ? new byte[0] : record.getBody().getBytes(StandardCharsets.UTF_8)))
+                    .orElse(null);
+            if (response != null) {
+                responses.put(key, response);
+            }
+        }
+        return Optional.ofNullable(response);
+    }
+    
+    // False if another request with the same key is still running
+    public boolean begin(String key) {
+        return inFlight.add(key);
+    }
+    
+    public void complete(String key, StoredResponse response) {
+        responses.put(key, response);
+        if (persistent) {
+            IdempotencyRecord record = new IdempotencyRecord();
+            record.setIdempotencyKey(key);
+            record.setRequestHash(response.requestHash());
+            record.setStatus(response.status());
+            record.setContentType(response.contentType());
+            record.setLocation(response.location());
+            record.setBody(new String(response.body(), StandardCharsets.UTF_8));
+            idempotencyRecordRepository.save(record);
+        }
+    }
+    
+    public void end(String key) {
+        inFlight.remove(key);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanupIntervalMs:3600000}")
+    public void deleteExpiredRecords() {
+        if (persistent) {
+            int deleted = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+            log.debug("Deleted {} expired idempotency record(s)", deleted);
+        }
+    }
+    
+    public record StoredResponse(String requestHash, int status, String contentType, String location, byte[] body) {}
+}
@@ -1,16 +1,25 @@
 package com.eduelevate.lms.service;
 
+import com.eduelevate.lms.config.CacheConfig;
 import com.eduelevate.lms.dto.instructor.CreateInstructorDto;
 import com.eduelevate.lms.dto.instructor.InstructorResponseDto;
 import com.eduelevate.lms.dto.instructor.UpdateInstructorDto;
 import com.eduelevate.lms.entity.Instructor;
+import com.eduelevate.lms.entity.OutboxEvent;
+import com.eduelevate.lms.entity.UserIdentity;
+import com.eduelevate.lms.repository.CourseRepository;
 import com.eduelevate.lms.repository.InstructorRepository;
+import com.eduelevate.lms.security.CourseAccess;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -20,8 +29,15 @@ public class InstructorServiceImpl implements InstructorService {
     
     private final InstructorRepository instructorRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CourseAccess courseAccess;
+    private final CourseRepository courseRepository;
+    private final EnrollmentBitmapIndex enrollmentBitmapIndex;
+    private final CourseSearchIndex courseSearchIndex;
+    private final OutboxService outboxService;
+    private final UserIdentityService userIdentityService;
     
     @Override
+    @Transactional
     public InstructorResponseDto createInstructor(CreateInstructorDto createInstructorDto) {
         // Check if username already exists
         if (instructorRepository.existsByUsername(createInstructorDto.getUsername())) {
@@ -36,6 +52,8 @@ public class InstructorServiceImpl implements InstructorService {
         try {
             Instructor instructor = mapToEntity(createInstructorDto);
             Instructor savedInstructor = instructorRepository.save(instructor);
+            userIdentityService.claim(UserIdentity.Role.INSTRUCTOR, savedInstructor.getInstructorId(),
+                    savedInstructor.getUsername(), savedInstructor.getEmail());
             return mapToResponseDto(savedInstructor);
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Failed to create instructor: " + e.getMessage());
@@ -57,7 +75,14 @@ public class InstructorServiceImpl implements InstructorService {
                 .collect(Collectors.toList());
     }
     
+    // Course responses embed the instructor's name, email and department. The proxy applies the
+    // evictions after commit
     @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.COURSE_LISTS, allEntries = true)
+    })
     public InstructorResponseDto updateInstructor(Integer instructorId, UpdateInstructorDto updateInstructorDto) {
         Instructor existingInstructor = instructorRepository.findById(instructorId)
                 .orElseThrow(() -> new RuntimeException("Instructor not found with id: " + instructorId));
@@ -80,15 +105,39 @@ public class InstructorServiceImpl implements InstructorService {
         
         updateInstructorFields(existingInstructor, updateInstructorDto);
         Instructor updatedInstructor = instructorRepository.save(existingInstructor);
+        if (updateInstructorDto.getUsername() != null || updateInstructorDto.getEmail() != null) {
+            userIdentityService.update(UserIdentity.Role.INSTRUCTOR, instructorId,
+                    updateInstructorDto.getUsername(), updateInstructorDto.getEmail());
+        }
         return mapToResponseDto(updatedInstructor);
     }
     
+    // Deleting an instructor cascades to their courses
     @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.COURSE_LISTS, allEntries = true)
+    })
     public void deleteInstructor(Integer instructorId) {
         if (!instructorRepository.existsById(instructorId)) {
             throw new RuntimeException("Instructor not found with id: " + instructorId);
         }
+        List<Integer> courseIds = courseRepository.findCourseIdsByInstructorId(instructorId);
         instructorRepository.deleteById(instructorId);
+        userIdentityService.release(UserIdentity.Role.INSTRUCTOR, instructorId);
+        // Same event CourseServiceImpl.deleteCourse records, so consumers see cascaded deletes too
+        courseIds.forEach(courseId ->
+                outboxService.record(OutboxEvent.EventType.COURSE_DELETED, courseId, Map.of("courseId", courseId)));
+        // Their courses, and the enrollments in them, are deleted with them. The in-memory copies are dropped
+        // after commit, so a concurrent check cannot reload and keep the old ownership in between
+        TransactionCallbacks.afterCommit(() -> {
+            courseAccess.evictInstructor(instructorId);
+            courseIds.forEach(courseId -> {
+                enrollmentBitmapIndex.removeCourse(courseId);
+                courseSearchIndex.remove(courseId);
+            });
+        });
     }
     
     @Override
@@ -0,0 +1,125 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.entity.OutboxEvent;
+import com.eduelevate.lms.event.DomainEvent;
+import com.eduelevate.lms.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Drains the outbox in batches and hands each event to in-process listeners, off the request path.
+// Every event is claimed, delivered and deleted in its own transaction, so one failing listener cannot roll back
+// the deletes of events already delivered (and have them sent again). Failing events are retried up to
+// maxAttempts with exponential backoff, so a short outage of a downstream service does not use up every attempt,
+// and then left for inspection.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${app.outboxBatchSize:100}")
+    private int batchSize;
+    
+    @Value("${app.outboxMaxAttempts:10}")
+    private int maxAttempts;
+    
+    @Value("${app.outboxRetryBaseDelayMs:5000}")
+    private long retryBaseDelayMs;
+    
+    @Value("${app.outboxRetryMaxDelayMs:3600000}")
+    private long retryMaxDelayMs;
+    
+    @Scheduled(fixedDelayString = "${app.outboxRelayIntervalMs:1000}")
+    public void relay() {
+        long afterId = 0L;
+        int delivered = 0;
+        LocalDateTime now = LocalDateTime.now();
+        
+        while (true) {
+            List<Long> batch = outboxEventRepository.findRelayCandidateIds(afterId, maxAttempts, now, PageRequest.of(0, batchSize));
+            for (Long eventId : batch) {
+                if (deliver(eventId)) {
+                    delivered++;
+                }
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1);
+        }
+        
+        if (delivered > 0) {
+            log.debug("Relayed {} outbox event(s)", delivered);
+        }
+    }
+    
+    private boolean deliver(Long eventId) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                OutboxEvent event = outboxEventRepository.claimForRelay(eventId, maxAttempts).orElse(null);
+                if (event == null) {
+                    // Delivered meanwhile, or being delivered by another relay
+                    return false;
+                }
+                Map<String, Object> payload = readPayload(event);
+                eventPublisher.publishEvent(new DomainEvent(event.getOutboxEventId(), event.getEventType(),
+                        event.getAggregateId(), payload, event.getCreatedAt()));
+                outboxEventRepository.delete(event);
+                return true;
+            }));
+        } catch (Exception e) {
+            // The delivery transaction is rolled back by now, so the failure is recorded in a fresh one
+            transactionTemplate.executeWithoutResult(status -> recordFailure(eventId, e));
+            return false;
+        }
+    }
+    
+    private Map<String, Object> readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload: " + e.getOriginalMessage(), e);
+        }
+    }
+    
+    private void recordFailure(Long eventId, Exception e) {
+        outboxEventRepository.claimForRelay(eventId, maxAttempts).ifPresent(event -> {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(abbreviate(e.toString()));
+            Duration delay = retryDelay(event.getAttempts());
+            event.setNextAttemptAt(LocalDateTime.now().plus(delay));
+            log.warn("Outbox event {} ({}) failed, attempt {}/{}, next try in {}s: {}", event.getOutboxEventId(),
+                    event.getEventType(), event.getAttempts(), maxAttempts, delay.toSeconds(), e.getMessage());
+        });
+    }
+    
+    // retryBaseDelayMs after the first failure, doubling with each further one, capped at retryMaxDelayMs
+    private Duration retryDelay(int failedAttempts) {
+        int doublings = Math.min(Math.max(failedAttempts - 1, 0), 30);
+        return Duration.ofMillis(Math.min(retryBaseDelayMs << doublings, retryMaxDelayMs));
+    }
+    
+    private static String abbreviate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
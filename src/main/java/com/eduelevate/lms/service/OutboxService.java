@@ -0,0 +1,34 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.entity.OutboxEvent;
+import com.eduelevate.lms.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    // Must join the caller's transaction so the event commits or rolls back with the change
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEvent.EventType type, Integer aggregateId, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event payload is not serializable: " + payload, e);
+        }
+        outboxEventRepository.save(event);
+    }
+}
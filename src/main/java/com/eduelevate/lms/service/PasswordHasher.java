@@ -0,0 +1,85 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.exception.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs BCrypt on a small dedicated pool instead of Tomcat threads. A login burst then uses at most
+// app.passwordHashing.threads cores, and other requests keep the rest. The queue is kept short (a few hashes
+// per thread), so a caller waits at most a fraction of a second and work beyond it is shed right away with a
+// ServiceBusyException (503 + Retry-After) instead of piling up on request threads.
+@Component
+@Slf4j
+public class PasswordHasher {
+    
+    private static final int QUEUED_PER_THREAD = 4;
+    
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${app.passwordHashing.threads:0}") int threads,
+                          @Value("${app.passwordHashing.queueCapacity:0}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        // 0 means one thread per core, and a queue of QUEUED_PER_THREAD hashes per thread
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int queueSize = queueCapacity > 0 ? queueCapacity : poolSize * QUEUED_PER_THREAD;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+    
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+    
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+    
+    // True when the hash was made with a lower cost than the configured one; cheap, no hashing involved
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+    
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Too many sign-in requests. Please try again later.");
+        }
+        
+        // No timeout: the short queue already bounds the wait, and a BCrypt call cannot be stopped once it runs
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // Keeps the hash from starting if it is still queued
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Sign-in was interrupted. Please try again.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
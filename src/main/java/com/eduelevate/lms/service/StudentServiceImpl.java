@@ -2,10 +2,12 @@ package com.eduelevate.lms.service;
 
 import com.eduelevate.lms.dto.student.*;
 import com.eduelevate.lms.entity.Student;
+import com.eduelevate.lms.entity.UserIdentity;
 import com.eduelevate.lms.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,6 +21,15 @@ public class StudentServiceImpl implements StudentService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EnrollmentBitmapIndex enrollmentBitmapIndex;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private CourseService courseService;
+
     @Override
     public List<StudentResponseDto> getAllStudents() {
         List<Student> students = studentRepository.findAll();
@@ -35,6 +46,7 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @Transactional
     public StudentResponseDto createStudent(CreateStudentDto createDto) {
         // Check if email already exists
         if (studentRepository.existsByEmail(createDto.getEmail())) {
@@ -54,10 +66,12 @@ public class StudentServiceImpl implements StudentService {
         student.setPassword(passwordEncoder.encode(createDto.getPassword()));
         
         Student savedStudent = studentRepository.save(student);
+        userIdentityService.claim(UserIdentity.Role.STUDENT, savedStudent.getStudentId(), savedStudent.getUsername(), savedStudent.getEmail());
         return convertToResponseDto(savedStudent);
     }
 
     @Override
+    @Transactional
     public StudentResponseDto updateStudent(int studentId, UpdateStudentDto updateDto) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
@@ -89,15 +103,24 @@ public class StudentServiceImpl implements StudentService {
         }
 
         Student savedStudent = studentRepository.save(student);
+        if (updateDto.getUsername() != null || updateDto.getEmail() != null) {
+            userIdentityService.update(UserIdentity.Role.STUDENT, studentId, updateDto.getUsername(), updateDto.getEmail());
+        }
         return convertToResponseDto(savedStudent);
     }
 
     @Override
+    @Transactional
     public void deleteStudent(int studentId) {
         if (!studentRepository.existsById(studentId)) {
             throw new RuntimeException("Student not found with id: " + studentId);
         }
+        // The student's active enrollments are deleted with them, so their seats are given back first
+        courseService.releaseSeatsOfStudent(studentId);
         studentRepository.deleteById(studentId);
+        userIdentityService.release(UserIdentity.Role.STUDENT, studentId);
+        // The student's enrollments are deleted with them
+        TransactionCallbacks.afterCommit(() -> enrollmentBitmapIndex.removeStudent(studentId));
     }
 
     private StudentResponseDto convertToResponseDto(Student student) {
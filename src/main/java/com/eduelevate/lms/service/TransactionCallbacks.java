@@ -0,0 +1,26 @@
+package com.eduelevate.lms.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Defers in-memory side effects (caches, indexes) of a database change until its transaction commits,
+// so a rolled-back change never shows up in them
+public final class TransactionCallbacks {
+    
+    private TransactionCallbacks() {
+    }
+    
+    // Runs the action once the current transaction commits, or immediately outside a transaction
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
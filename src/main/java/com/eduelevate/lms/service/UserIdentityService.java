@@ -0,0 +1,120 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.entity.UserIdentity;
+import com.eduelevate.lms.exception.DuplicateResourceException;
+import com.eduelevate.lms.repository.IdentityRow;
+import com.eduelevate.lms.repository.UserIdentityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// Keeps user_identity in step with the student, admin and instructor tables. Uniqueness is enforced by the
+// table's constraints rather than by looking names up first, so claim/update are called inside the
+// caller's transaction and a conflict rolls back the account change with them.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserIdentityService {
+    
+    private final UserIdentityRepository userIdentityRepository;
+    
+    public Optional<UserIdentity> findByUsername(String username) {
+        return userIdentityRepository.findByUsername(username);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claim(UserIdentity.Role role, Integer userId, String username, String email) {
+        UserIdentity identity = new UserIdentity();
+        identity.setRole(role);
+        identity.setUserId(userId);
+        identity.setUsername(username);
+        identity.setEmail(email);
+        save(identity);
+    }
+    
+    // Applies a username/email change; null leaves the field as it is
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void update(UserIdentity.Role role, Integer userId, String username, String email) {
+        UserIdentity identity = userIdentityRepository.findByRoleAndUserId(role, userId)
+                .orElseGet(() -> {
+                    UserIdentity created = new UserIdentity();
+                    created.setRole(role);
+                    created.setUserId(userId);
+                    return created;
+                });
+        if (username != null) {
+            identity.setUsername(username);
+        }
+        if (email != null) {
+            identity.setEmail(email);
+        }
+        save(identity);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(UserIdentity.Role role, Integer userId) {
+        userIdentityRepository.deleteByRoleAndUserId(role, userId);
+    }
+    
+    // Flushed immediately so a constraint violation surfaces here, as a duplicate, rather than at commit
+    private void save(UserIdentity identity) {
+        try {
+            userIdentityRepository.saveAndFlush(identity);
+        } catch (DataIntegrityViolationException e) {
+            throw toDuplicate(e);
+        }
+    }
+    
+    // Turns a violated username or email key, of user_identity or of a role table (uk_<table>_username,
+    // uk_<table>_email), into the message clients get. The session cannot be queried after a failed flush,
+    // so the violated key is read from the error
+    public DuplicateResourceException toDuplicate(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                ? violation.getConstraintName()
+                : String.valueOf(e.getMostSpecificCause().getMessage());
+        if (constraint.toLowerCase(Locale.ROOT).contains("_email")) {
+            return new DuplicateResourceException("Email is already in use!");
+        }
+        return new DuplicateResourceException("Username is already taken!");
+    }
+    
+    // Accounts that predate user_identity, or were inserted by SQL, get their row on startup.
+    // Each row is saved on its own, so an account clashing with another role's username or email is
+    // reported and skipped instead of failing the whole backfill. Skipped accounts can still sign in by
+    // passing their userType (AuthServiceImpl then looks them up in their own table), but the clash is
+    // logged as an error because it has to be resolved by renaming one of the accounts.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int added = backfill(UserIdentity.Role.STUDENT, userIdentityRepository.findStudentsWithoutIdentity())
+                + backfill(UserIdentity.Role.ADMIN, userIdentityRepository.findAdminsWithoutIdentity())
+                + backfill(UserIdentity.Role.INSTRUCTOR, userIdentityRepository.findInstructorsWithoutIdentity());
+        if (added > 0) {
+            log.info("Backfilled {} user identity row(s)", added);
+        }
+    }
+    
+    private int backfill(UserIdentity.Role role, List<IdentityRow> rows) {
+        int added = 0;
+        for (IdentityRow row : rows) {
+            try {
+                userIdentityRepository.save(new UserIdentity(null, row.getUsername(), row.getEmail(), role, row.getUserId()));
+                added++;
+            } catch (DataIntegrityViolationException e) {
+                log.error("Cannot index {} {} ({}): username or email already used by another account; "
+                        + "it can only sign in with userType={}", role, row.getUserId(), row.getUsername(),
+                        role.name().toLowerCase(Locale.ROOT));
+            }
+        }
+        return added;
+    }
+}
@@ -0,0 +1,202 @@
+package com.eduelevate.lms.web;
+
+import com.eduelevate.lms.security.UserPrincipal;
+import com.eduelevate.lms.service.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Makes the retry-prone POST endpoints (course creation and enrollment) safe to retry with an Idempotency-Key:
+// the first successful response is stored and replayed for later requests with the same key, without reaching
+// the controllers or services. Registered as a servlet filter, so it runs after the security chain has
+// authenticated the caller. Other endpoints, /api/auth in particular, are never covered, so tokens are never stored.
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final List<String> IDEMPOTENT_ENDPOINTS = List.of(
+            "/api/courses",
+            "/api/courses/{courseId}/enroll"
+    );
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || !StringUtils.hasText(request.getHeader(IDEMPOTENCY_KEY_HEADER))) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return IDEMPOTENT_ENDPOINTS.stream().noneMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String caller = currentCaller();
+        if (caller == null) {
+            // Unauthenticated requests are rejected by the endpoints themselves; there is no caller to scope a key to
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        String clientKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (clientKey.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        
+        String requestUri = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        String key = idempotencyStore.scopedKey(caller, requestUri, clientKey);
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = idempotencyStore.hash(cachedRequest.body);
+        
+        IdempotencyStore.StoredResponse stored = idempotencyStore.find(key).orElse(null);
+        if (stored != null) {
+            if (!requestHash.equals(stored.requestHash())) {
+                writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with a different request body");
+                return;
+            }
+            replay(stored, response);
+            return;
+        }
+        
+        if (!idempotencyStore.begin(key)) {
+            writeError(request, response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+            return;
+        }
+        
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(cachedRequest, responseWrapper);
+            // Only successful outcomes are stored; errors may be transient and are worth retrying
+            if (HttpStatus.valueOf(responseWrapper.getStatus()).is2xxSuccessful()) {
+                idempotencyStore.complete(key, new IdempotencyStore.StoredResponse(requestHash, responseWrapper.getStatus(),
+                        responseWrapper.getContentType(), responseWrapper.getHeader(HttpHeaders.LOCATION),
+                        responseWrapper.getContentAsByteArray()));
+            }
+        } finally {
+            idempotencyStore.end(key);
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+    
+    private void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+    
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        // Same shape as GlobalExceptionHandler responses
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("status", status.value());
+        errorResponse.put("error", status.getReasonPhrase());
+        errorResponse.put("message", message);
+        errorResponse.put("path", request.getRequestURI());
+        
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+    
+    private static String currentCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getRole() + ":" + principal.getUserId();
+        }
+        return null;
+    }
+    
+    // Reads the body up front so it can be hashed and still be read again by the controllers
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+                
+                @Override
+                public int read() {
+                    return input.read();
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null ? StandardCharsets.UTF_8 : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -21,6 +21,18 @@ DROP TABLE IF EXISTS assignment;
 
 DROP TABLE IF EXISTS quiz;
 
+DROP TABLE IF EXISTS user_identity;
+
+DROP TABLE IF EXISTS job_checkpoint;
+
+DROP TABLE IF EXISTS enrollment_history;
+
+DROP TABLE IF EXISTS idempotency_record;
+
+DROP TABLE IF EXISTS outbox_event;
+
+DROP TABLE IF EXISTS waitlist_entry;
+
 DROP TABLE IF EXISTS enrollment;
 
 DROP TABLE IF EXISTS lesson;
@@ -37,8 +49,8 @@ DROP TABLE IF EXISTS student;
 CREATE TABLE
     student (
         student_id INT AUTO_INCREMENT PRIMARY KEY,
-        username VARCHAR(50) UNIQUE NOT NULL,
-        email VARCHAR(100) UNIQUE NOT NULL,
+        username VARCHAR(50) NOT NULL,
+        email VARCHAR(100) NOT NULL,
         password VARCHAR(255) NOT NULL,
         first_name VARCHAR(50) NOT NULL,
         last_name VARCHAR(50) NOT NULL,
@@ -47,30 +59,34 @@ CREATE TABLE
         date_of_birth DATE,
         enrollment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+        CONSTRAINT uk_student_username UNIQUE (username),
+        CONSTRAINT uk_student_email UNIQUE (email)
     );
 
 -- Create admin table
 CREATE TABLE
     admin (
         admin_id INT AUTO_INCREMENT PRIMARY KEY,
-        username VARCHAR(50) UNIQUE NOT NULL,
-        email VARCHAR(100) UNIQUE NOT NULL,
+        username VARCHAR(50) NOT NULL,
+        email VARCHAR(100) NOT NULL,
         password VARCHAR(255) NOT NULL,
         first_name VARCHAR(50) NOT NULL,
         last_name VARCHAR(50) NOT NULL,
         phone_number VARCHAR(20),
         address TEXT,
         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+        CONSTRAINT uk_admin_username UNIQUE (username),
+        CONSTRAINT uk_admin_email UNIQUE (email)
     );
 
 -- Create instructor table (independent entity, not extending student)
 CREATE TABLE
     instructor (
         instructor_id INT AUTO_INCREMENT PRIMARY KEY,
-        username VARCHAR(50) UNIQUE NOT NULL,
-        email VARCHAR(100) UNIQUE NOT NULL,
+        username VARCHAR(50) NOT NULL,
+        email VARCHAR(100) NOT NULL,
         password VARCHAR(255) NOT NULL,
         first_name VARCHAR(50) NOT NULL,
         last_name VARCHAR(50) NOT NULL,
@@ -81,7 +97,22 @@ CREATE TABLE
         years_of_experience INT DEFAULT 0,
         qualifications TEXT,
         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+        CONSTRAINT uk_instructor_username UNIQUE (username),
+        CONSTRAINT uk_instructor_email UNIQUE (email)
+    );
+
+-- Create user identity table (username/email unique across students, admins and instructors; backfilled on startup)
+CREATE TABLE
+    user_identity (
+        user_identity_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+        username VARCHAR(50) NOT NULL,
+        email VARCHAR(100) NOT NULL,
+        role VARCHAR(20) NOT NULL,
+        user_id INT NOT NULL,
+        UNIQUE KEY uk_user_identity_username (username),
+        UNIQUE KEY uk_user_identity_email (email),
+        UNIQUE KEY uk_user_identity_account (role, user_id)
     );
 
 -- Create course table
@@ -93,6 +124,9 @@ CREATE TABLE
         description TEXT,
         duration_weeks INT,
         max_students INT DEFAULT 50,
+        active_enrollment_count INT NOT NULL DEFAULT 0,
+        available_seats INT NOT NULL DEFAULT 50,
+        enrollment_version BIGINT NOT NULL DEFAULT 0,
         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
         updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
         FOREIGN KEY (instructor_id) REFERENCES instructor (instructor_id) ON DELETE CASCADE
@@ -120,11 +154,69 @@ CREATE TABLE
         course_id INT NOT NULL,
         enrollment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
         status ENUM ('ACTIVE', 'COMPLETED', 'DROPPED') DEFAULT 'ACTIVE',
+        updated_at TIMESTAMP NULL,
         FOREIGN KEY (student_id) REFERENCES student (student_id) ON DELETE CASCADE,
         FOREIGN KEY (course_id) REFERENCES course (course_id) ON DELETE CASCADE,
         UNIQUE KEY unique_enrollment (student_id, course_id)
     );
 
+-- Create enrollment history table (archived DROPPED/COMPLETED enrollments; no foreign keys so records outlive students and courses)
+CREATE TABLE
+    enrollment_history (
+        enrollment_id INT PRIMARY KEY,
+        student_id INT NOT NULL,
+        course_id INT NOT NULL,
+        status ENUM ('ACTIVE', 'COMPLETED', 'DROPPED') NOT NULL,
+        enrollment_date TIMESTAMP NOT NULL,
+        ended_at TIMESTAMP NOT NULL,
+        archived_at TIMESTAMP NOT NULL
+    );
+
+-- Create job checkpoint table (resume point of chunked background jobs)
+CREATE TABLE
+    job_checkpoint (
+        job_name VARCHAR(100) PRIMARY KEY,
+        last_processed_id BIGINT NOT NULL DEFAULT 0,
+        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    );
+
+-- Create waitlist table (FIFO per course, ordered by waitlist_entry_id)
+CREATE TABLE
+    waitlist_entry (
+        waitlist_entry_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+        student_id INT NOT NULL,
+        course_id INT NOT NULL,
+        joined_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+        FOREIGN KEY (student_id) REFERENCES student (student_id) ON DELETE CASCADE,
+        FOREIGN KEY (course_id) REFERENCES course (course_id) ON DELETE CASCADE,
+        UNIQUE KEY unique_waitlist_entry (student_id, course_id)
+    );
+
+-- Create outbox table (events written with enrollment/course changes, drained by the relay)
+CREATE TABLE
+    outbox_event (
+        outbox_event_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+        event_type VARCHAR(50) NOT NULL,
+        aggregate_id INT NOT NULL,
+        payload TEXT NOT NULL,
+        attempts INT NOT NULL DEFAULT 0,
+        last_error VARCHAR(500),
+        next_attempt_at TIMESTAMP NULL,
+        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    );
+
+-- Create idempotency table (stored responses for retried POST requests; optional, see app.idempotency.persistent)
+CREATE TABLE
+    idempotency_record (
+        idempotency_key CHAR(64) PRIMARY KEY,
+        request_hash CHAR(64) NOT NULL,
+        status INT NOT NULL,
+        content_type VARCHAR(100),
+        location VARCHAR(500),
+        body TEXT,
+        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    );
+
 -- Create quiz table (Course level)
 CREATE TABLE
     quiz (
@@ -251,12 +343,26 @@ CREATE INDEX idx_instructor_username ON instructor (username);
 
 CREATE INDEX idx_course_instructor ON course (instructor_id);
 
+CREATE INDEX idx_course_created_at_id ON course (created_at, course_id);
+
+CREATE INDEX idx_course_available_seats ON course (available_seats);
+
 CREATE INDEX idx_lesson_course ON lesson (course_id);
 
 CREATE INDEX idx_enrollment_user ON enrollment (student_id);
 
 CREATE INDEX idx_enrollment_course ON enrollment (course_id);
 
+CREATE INDEX idx_enrollment_status_id ON enrollment (status, enrollment_id);
+
+CREATE INDEX idx_enrollment_history_student ON enrollment_history (student_id, ended_at);
+
+CREATE INDEX idx_enrollment_history_course ON enrollment_history (course_id, ended_at);
+
+CREATE INDEX idx_waitlist_course_entry ON waitlist_entry (course_id, waitlist_entry_id);
+
+CREATE INDEX idx_idempotency_created_at ON idempotency_record (created_at);
+
 CREATE INDEX idx_notification_user ON notification (student_id);
 
 CREATE INDEX idx_notification_unread ON notification (student_id, is_read);
@@ -0,0 +1,90 @@
+package com.eduelevate.lms.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cost of authenticating one request: AuthTokenFilter with a token already in the verified cache, with a token
+// seen for the first time, and the four separate parses the filter did before verify(). Run with -Pbenchmark;
+// results are logged as nanoseconds per request.
+@Tag("benchmark")
+class JwtVerificationBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerificationBenchmark.class);
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsLongEnoughForHmacSha256";
+    private static final int ITERATIONS = 20_000;
+
+    private final JwtUtils jwtUtils = new JwtUtils(new AuthMetrics(new SimpleMeterRegistry(), 100), SECRET, 3_600_000, 100_000);
+    private final AuthTokenFilter filter = new AuthTokenFilter();
+
+    @Test
+    void filterCostPerRequest() {
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "authMetrics", new AuthMetrics(new SimpleMeterRegistry(), 100));
+
+        String cachedToken = jwtUtils.generateJwtToken("student", "STUDENT", 1);
+        // Distinct users so every token misses the cache once: a warm-up set and a measured set
+        String[] freshTokens = new String[2 * ITERATIONS];
+        for (int i = 0; i < freshTokens.length; i++) {
+            freshTokens[i] = jwtUtils.generateJwtToken("student" + i, "STUDENT", i);
+        }
+
+        double cached = nanosPerOp(i -> filter(cachedToken), i -> filter(cachedToken));
+        double verified = nanosPerOp(i -> filter(freshTokens[i]), i -> filter(freshTokens[ITERATIONS + i]));
+        double fourParses = nanosPerOp(i -> parseFourTimes(cachedToken), i -> parseFourTimes(cachedToken));
+
+        log.info("AuthTokenFilter per request: cached {} ns, first use {} ns; four parses as before verify() {} ns",
+                Math.round(cached), Math.round(verified), Math.round(fourParses));
+    }
+
+    private void filter(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        SecurityContextHolder.clearContext();
+    }
+
+    // What each request cost before: validate, then username, role and userId, each with a new key and parser
+    private static void parseFourTimes(String token) {
+        for (String claim : new String[] {null, Claims.SUBJECT, "role", "userId"}) {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            assertThat(claim == null || claims.get(claim) != null).isTrue();
+        }
+    }
+
+    // Runs the warm-up pass, then times the measured pass
+    private static double nanosPerOp(IntConsumer warmUp, IntConsumer measured) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            warmUp.accept(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            measured.accept(i);
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+}
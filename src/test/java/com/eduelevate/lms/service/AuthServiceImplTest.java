@@ -0,0 +1,57 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.dto.auth.RegisterRequest;
+import com.eduelevate.lms.exception.DuplicateResourceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AuthServiceImplTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    void registeringATakenUsernameOrEmailWithinOneRoleIsReportedAsADuplicate() {
+        authService.registerUser(registration("twice", "twice@example.com", "student"));
+
+        assertThatThrownBy(() -> authService.registerUser(registration("twice", "other@example.com", "student")))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("Username is already taken!");
+        assertThatThrownBy(() -> authService.registerUser(registration("other", "twice@example.com", "student")))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("Email is already in use!");
+    }
+
+    @Test
+    void theViolatedKeyIsTakenFromTheConstraintNotTheRejectedValue() {
+        authService.registerUser(registration("my_email", "mine@example.com", "admin"));
+
+        assertThatThrownBy(() -> authService.registerUser(registration("my_email", "yours@example.com", "admin")))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("Username is already taken!");
+    }
+
+    @Test
+    void registeringATakenUsernameInAnotherRoleIsReportedAsADuplicate() {
+        authService.registerUser(registration("shared", "shared@example.com", "instructor"));
+
+        assertThatThrownBy(() -> authService.registerUser(registration("shared", "shared-admin@example.com", "admin")))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("Username is already taken!");
+    }
+
+    private static RegisterRequest registration(String username, String email, String userType) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setPassword("secret123");
+        request.setEmail(email);
+        request.setFirstName("Test");
+        request.setLastName("User");
+        request.setUserType(userType);
+        return request;
+    }
+}
@@ -0,0 +1,111 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.config.CacheConfig;
+import com.eduelevate.lms.dto.course.CourseCreateDto;
+import com.eduelevate.lms.dto.course.CourseResponseDto;
+import com.eduelevate.lms.dto.course.CourseSearchCriteria;
+import com.eduelevate.lms.entity.Course;
+import com.eduelevate.lms.entity.Instructor;
+import com.eduelevate.lms.entity.Student;
+import com.eduelevate.lms.repository.CourseRepository;
+import com.eduelevate.lms.repository.InstructorRepository;
+import com.eduelevate.lms.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CourseServiceImplTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private InstructorRepository instructorRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void enrollmentsKeepCachedListingsButShowCurrentSeats() {
+        Instructor instructor = instructorRepository.save(instructor("seats"));
+        Integer courseId = courseService.createCourse(
+                new CourseCreateDto("Seat Counting", "one seat at a time", 4, 10, instructor.getInstructorId())).getCourseId();
+        assertThat(courseService.getCoursesByInstructor(instructor.getInstructorId()))
+                .extracting(CourseResponseDto::getCurrentEnrollments).containsExactly(0);
+
+        Student student = new Student();
+        student.setUsername("seats");
+        student.setEmail("seats@example.com");
+        student.setPassword("secret");
+        student.setFirstName("Test");
+        student.setLastName("Student");
+        courseService.enrollStudent(courseId, studentRepository.save(student).getStudentId());
+
+        SimpleKey listingKey = new SimpleKey("getCoursesByInstructor", instructor.getInstructorId());
+        assertThat(cacheManager.getCache(CacheConfig.COURSE_LISTS).get(listingKey)).isNotNull();
+        assertThat(courseService.getCoursesByInstructor(instructor.getInstructorId()))
+                .extracting(CourseResponseDto::getCurrentEnrollments).containsExactly(1);
+    }
+
+    @Test
+    void sortedTextSearchPagesAcrossMoreMatchesThanOneChunk() {
+        Instructor instructor = instructorRepository.save(instructor("nebula"));
+
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Course course = new Course();
+            course.setTitle(String.format("Nebula Astronomy %04d", (i * 7919) % 2500));
+            course.setDurationWeeks(i % 7);
+            course.setInstructor(instructor);
+            courses.add(course);
+        }
+        courseRepository.saveAll(courses)
+                .forEach(course -> courseSearchIndex.index(course.getCourseId(), course.getTitle(), course.getDescription()));
+
+        List<String> expected = courses.stream()
+                .sorted(Comparator.comparing(Course::getDurationWeeks).reversed().thenComparing(Course::getTitle))
+                .map(Course::getTitle)
+                .collect(Collectors.toList());
+        Sort sort = Sort.by(Sort.Order.desc("durationWeeks"), Sort.Order.asc("title"));
+
+        for (int pageNumber : new int[] {0, 123, 249}) {
+            Page<CourseResponseDto> page = courseService.searchCourses(
+                    new CourseSearchCriteria("nebula", null, null, null, false), PageRequest.of(pageNumber, 10, sort));
+            assertThat(page.getTotalElements()).isEqualTo(2500);
+            assertThat(page.getContent()).extracting(CourseResponseDto::getTitle)
+                    .containsExactlyElementsOf(expected.subList(pageNumber * 10, pageNumber * 10 + 10));
+        }
+    }
+
+    private static Instructor instructor(String username) {
+        Instructor instructor = new Instructor();
+        instructor.setUsername(username);
+        instructor.setEmail(username + "@example.com");
+        instructor.setPassword("secret");
+        instructor.setFirstName("Test");
+        instructor.setLastName("Instructor");
+        return instructor;
+    }
+}
@@ -0,0 +1,69 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.repository.EnrollmentPair;
+import com.eduelevate.lms.repository.EnrollmentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EnrollmentBitmapIndexTest {
+
+    private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+    private final EnrollmentBitmapIndex index = new EnrollmentBitmapIndex(enrollmentRepository);
+
+    @Test
+    void lookupsAreAnsweredWhileARebuildIsLoading() throws Exception {
+        when(enrollmentRepository.streamActiveEnrollmentPairs()).thenReturn(Stream.of(pair(1, 10)));
+        index.rebuild();
+
+        when(enrollmentRepository.streamActiveEnrollmentPairs()).thenReturn(Stream.of(pair(1, 10), pair(1, 11))
+                .peek(pair -> assertThat(CompletableFuture.supplyAsync(() -> index.isEnrolled(1, 10)).orTimeout(5, TimeUnit.SECONDS).join())
+                        .isTrue()));
+        index.rebuild();
+
+        assertThat(index.isEnrolled(1, 11)).isTrue();
+    }
+
+    @Test
+    void changesCommittedDuringARebuildSurviveTheSwap() {
+        when(enrollmentRepository.streamActiveEnrollmentPairs()).thenReturn(Stream.of(pair(1, 10), pair(2, 10)));
+        index.rebuild();
+
+        // The snapshot still has student 10 in course 2 and lacks student 20, as if both changes committed after it
+        when(enrollmentRepository.streamActiveEnrollmentPairs()).thenReturn(Stream.of(pair(1, 10), pair(2, 10))
+                .peek(pair -> {
+                    if (pair.getCourseId() == 2) {
+                        CompletableFuture.runAsync(() -> {
+                            index.add(1, 20);
+                            index.remove(2, 10);
+                        }).orTimeout(5, TimeUnit.SECONDS).join();
+                    }
+                }));
+        index.rebuild();
+
+        assertThat(index.isEnrolled(1, 20)).isTrue();
+        assertThat(index.isEnrolled(2, 10)).isFalse();
+        assertThat(index.getCourseIds(10)).containsExactly(1);
+        assertThat(index.getCourseIds(20)).containsExactly(1);
+    }
+
+    private static EnrollmentPair pair(int courseId, int studentId) {
+        return new EnrollmentPair() {
+            @Override
+            public Integer getCourseId() {
+                return courseId;
+            }
+
+            @Override
+            public Integer getStudentId() {
+                return studentId;
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.dto.course.CourseCreateDto;
+import com.eduelevate.lms.entity.Course;
+import com.eduelevate.lms.entity.Instructor;
+import com.eduelevate.lms.entity.Student;
+import com.eduelevate.lms.exception.CourseFullException;
+import com.eduelevate.lms.repository.CourseRepository;
+import com.eduelevate.lms.repository.EnrollmentRepository;
+import com.eduelevate.lms.repository.InstructorRepository;
+import com.eduelevate.lms.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Registration rush against one hot course: many threads enroll distinct students into fewer seats at once.
+// The seat reservation must never oversell: exactly SEATS students get in and the course ends up full.
+@SpringBootTest
+class EnrollmentConcurrencyTest {
+    
+    private static final int THREADS = 32;
+    private static final int STUDENTS = 2000;
+    private static final int SEATS = 500;
+    
+    @Autowired
+    private CourseService courseService;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private InstructorRepository instructorRepository;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Test
+    void concurrentEnrollmentsNeverOversellAHotCourse() throws Exception {
+        Instructor instructor = new Instructor();
+        instructor.setUsername("rush-instructor");
+        instructor.setEmail("rush-instructor@example.com");
+        instructor.setPassword("secret");
+        instructor.setFirstName("Rush");
+        instructor.setLastName("Instructor");
+        instructor = instructorRepository.save(instructor);
+        Integer courseId = courseService.createCourse(
+                new CourseCreateDto("Registration Rush", "hot course", 4, SEATS, instructor.getInstructorId())).getCourseId();
+        
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setUsername("rush-student-" + i);
+            student.setEmail("rush-student-" + i + "@example.com");
+            student.setPassword("secret");
+            student.setFirstName("Rush");
+            student.setLastName("Student" + i);
+            students.add(student);
+        }
+        students = studentRepository.saveAll(students);
+        
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger rejectedFull = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> attempts = new ArrayList<>();
+        for (Student student : students) {
+            Integer studentId = student.getStudentId();
+            attempts.add(pool.submit(() -> {
+                start.await();
+                try {
+                    courseService.enrollStudent(courseId, studentId);
+                    enrolled.incrementAndGet();
+                } catch (CourseFullException e) {
+                    rejectedFull.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+                return null;
+            }));
+        }
+        
+        start.countDown();
+        for (Future<?> attempt : attempts) {
+            attempt.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        
+        assertThat(unexpected).isEmpty();
+        assertThat(enrolled.get()).isEqualTo(SEATS);
+        assertThat(rejectedFull.get()).isEqualTo(STUDENTS - SEATS);
+        assertThat(enrollmentRepository.countActiveByCourseId(courseId)).isEqualTo((long) SEATS);
+        Course course = courseRepository.findById(courseId).orElseThrow();
+        assertThat(course.getAvailableSeats()).isZero();
+        assertThat(course.getActiveEnrollmentCount()).isEqualTo(SEATS);
+    }
+}
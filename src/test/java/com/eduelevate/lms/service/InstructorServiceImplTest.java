@@ -0,0 +1,70 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.dto.course.CourseCreateDto;
+import com.eduelevate.lms.dto.course.CourseResponseDto;
+import com.eduelevate.lms.dto.course.CourseSearchCriteria;
+import com.eduelevate.lms.entity.Instructor;
+import com.eduelevate.lms.entity.OutboxEvent;
+import com.eduelevate.lms.repository.InstructorRepository;
+import com.eduelevate.lms.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class InstructorServiceImplTest {
+
+    @Autowired
+    private InstructorService instructorService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private InstructorRepository instructorRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void deletingAnInstructorDeletesTheirCoursesEverywhere() {
+        Instructor leaving = instructorRepository.save(instructor("leaving"));
+        Instructor staying = instructorRepository.save(instructor("staying"));
+        Integer first = courseService.createCourse(
+                new CourseCreateDto("Quasar Physics I", "stars", 4, 10, leaving.getInstructorId())).getCourseId();
+        Integer second = courseService.createCourse(
+                new CourseCreateDto("Quasar Physics II", "more stars", 4, 10, leaving.getInstructorId())).getCourseId();
+        Integer kept = courseService.createCourse(
+                new CourseCreateDto("Quasar Physics III", "even more stars", 4, 10, staying.getInstructorId())).getCourseId();
+        assertThat(search("quasar").getTotalElements()).isEqualTo(3);
+
+        instructorService.deleteInstructor(leaving.getInstructorId());
+
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> event.getEventType() == OutboxEvent.EventType.COURSE_DELETED)
+                .extracting(OutboxEvent::getAggregateId)
+                .containsExactlyInAnyOrder(first, second);
+
+        Page<CourseResponseDto> results = search("quasar");
+        assertThat(results.getTotalElements()).isEqualTo(1);
+        assertThat(results.getContent()).extracting(CourseResponseDto::getCourseId).containsExactly(kept);
+    }
+
+    private Page<CourseResponseDto> search(String text) {
+        return courseService.searchCourses(new CourseSearchCriteria(text, null, null, null, false), PageRequest.of(0, 1));
+    }
+
+    private static Instructor instructor(String username) {
+        Instructor instructor = new Instructor();
+        instructor.setUsername(username);
+        instructor.setEmail(username + "@example.com");
+        instructor.setPassword("secret");
+        instructor.setFirstName("Test");
+        instructor.setLastName("Instructor");
+        return instructor;
+    }
+}
@@ -0,0 +1,57 @@
+package com.eduelevate.lms.service;
+
+import com.eduelevate.lms.entity.OutboxEvent;
+import com.eduelevate.lms.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void failedEventsAreRetriedWithExponentialBackoff() {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(OutboxEvent.EventType.COURSE_UPDATED);
+        event.setAggregateId(1);
+        event.setPayload("not json");
+        Long eventId = outboxEventRepository.save(event).getOutboxEventId();
+
+        outboxRelay.relay();
+        OutboxEvent failedOnce = outboxEventRepository.findById(eventId).orElseThrow();
+        assertThat(failedOnce.getAttempts()).isEqualTo(1);
+        assertThat(failedOnce.getLastError()).contains("Unreadable payload");
+        assertThat(failedOnce.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(5), within(2, ChronoUnit.SECONDS));
+
+        // Not due yet, so the next ticks leave it alone
+        outboxRelay.relay();
+        outboxRelay.relay();
+        assertThat(outboxEventRepository.findById(eventId).orElseThrow().getAttempts()).isEqualTo(1);
+
+        makeDue(eventId);
+        outboxRelay.relay();
+        OutboxEvent failedTwice = outboxEventRepository.findById(eventId).orElseThrow();
+        assertThat(failedTwice.getAttempts()).isEqualTo(2);
+        assertThat(failedTwice.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(10), within(2, ChronoUnit.SECONDS));
+
+        outboxEventRepository.deleteById(eventId);
+    }
+
+    private void makeDue(Long eventId) {
+        OutboxEvent event = outboxEventRepository.findById(eventId).orElseThrow();
+        event.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(event);
+    }
+}
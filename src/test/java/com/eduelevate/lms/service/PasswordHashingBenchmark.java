@@ -0,0 +1,78 @@
+package com.eduelevate.lms.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Password checks per second through PasswordHasher at each BCrypt cost, i.e. the login rate the hashing pool
+// sustains on this machine. There are as many callers as queue slots: several per pool thread keep every thread
+// busy, and no more are ever outstanding than the queue holds, so none is shed.
+// Run with -Pbenchmark; results are logged.
+@Tag("benchmark")
+class PasswordHashingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingBenchmark.class);
+
+    private static final int[] COSTS = {8, 10, 12};
+    private static final long MEASURE_MILLIS = 5_000;
+
+    @Test
+    void loginsPerSecondByCost() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = threads * 4;
+        int callers = queueCapacity;
+
+        for (int cost : COSTS) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+            PasswordHasher hasher = new PasswordHasher(encoder, threads, queueCapacity);
+            String hash = encoder.encode("correct horse battery staple");
+            ExecutorService clients = Executors.newFixedThreadPool(callers);
+            try {
+                // Warm-up: one check per caller
+                runCallers(clients, callers, () -> assertThat(hasher.matches("correct horse battery staple", hash)).isTrue(), 0);
+
+                long start = System.nanoTime();
+                long logins = runCallers(clients, callers,
+                        () -> assertThat(hasher.matches("correct horse battery staple", hash)).isTrue(), MEASURE_MILLIS);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                log.info("BCrypt cost {}: {} logins/s ({} logins in {} s, {} hashing thread(s))",
+                        cost, String.format("%.1f", logins / seconds), logins, String.format("%.1f", seconds), threads);
+            } finally {
+                clients.shutdownNow();
+                hasher.stop();
+            }
+        }
+    }
+
+    // Each caller checks passwords back to back until the time is up (at least once); returns the total count
+    private static long runCallers(ExecutorService clients, int callers, Runnable login, long millis) throws Exception {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(clients.submit(() -> {
+                long count = 0;
+                do {
+                    login.run();
+                    count++;
+                } while (System.nanoTime() < deadline);
+                return count;
+            }));
+        }
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        return total;
+    }
+}